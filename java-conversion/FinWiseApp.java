@@ -584,10 +584,19 @@ public class FinWiseApp {
         System.out.print("Amount: $");
         double amount = getDoubleInput();
         
-        if (amount <= currentUser.getWalletBalance()) {
+        User recipientUser = findUserByEmail(recipient);
+        if (recipientUser == null) {
+            System.out.println("\nNo FinWise user found for " + recipient + ".");
+        } else if (recipientUser == currentUser) {
+            System.out.println("\nYou cannot send money to yourself.");
+        } else if (amount <= 0) {
+            System.out.println("\nInvalid amount.");
+        } else if (amount <= currentUser.getWalletBalance()) {
+            // Debit and credit together, so the money always lands somewhere
             currentUser.deductFromWallet(amount);
-            Transaction transaction = new Transaction("Transfer to " + recipient, -amount, "Transfer");
-            currentUser.addTransaction(transaction);
+            currentUser.addTransaction(new Transaction("Transfer to " + recipientUser.getEmail(), -amount, "Transfer"));
+            recipientUser.creditWallet(amount);
+            recipientUser.addTransaction(new Transaction("Transfer from " + currentUser.getEmail(), amount, "Transfer"));
             
             System.out.println("\n$" + String.format("%.2f", amount) + " transferred successfully!");
             System.out.println("New balance: $" + String.format("%.2f", currentUser.getWalletBalance()));
@@ -598,6 +607,15 @@ public class FinWiseApp {
         pressEnterToContinue();
     }
     
+    private static User findUserByEmail(String email) {
+        for (User user : users) {
+            if (user.getEmail().equalsIgnoreCase(email.trim())) {
+                return user;
+            }
+        }
+        return null;
+    }
+    
     private static void showTransactionHistory() {
         System.out.println("\n========== TRANSACTION HISTORY ==========");
         List<Transaction> transactions = currentUser.getAllTransactions();
@@ -836,6 +854,7 @@ class User {
         addTransaction(new Transaction("Wallet Top-up", amount, "Deposit"));
     }
     public void deductFromWallet(double amount) { walletBalance -= amount; }
+    public void creditWallet(double amount) { walletBalance += amount; }
     
     public void addExpense(Expense expense) { 
         expenses.add(expense);
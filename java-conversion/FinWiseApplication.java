@@ -24,19 +24,24 @@ import java.time.format.DateTimeFormatter;
 public class FinWiseApplication {
     private static Scanner scanner = new Scanner(System.in);
     private static AuthService authService = AuthService.getInstance();
+    private static WalletService wallet = WalletService.getInstance();
+    private static SettlementService settlement = SettlementService.getInstance();
     private static LanguageService langService = LanguageService.getInstance();
     private static User currentUser = null;
+    private static String sessionToken = null;
+    // Language of this console session; copied into the auth session once signed in
+    private static LocaleContext locale = langService.getDefaultContext();
     
     public static void main(String[] args) {
         printWelcomeBanner();
         
-        // Authentication loop
-        while (currentUser == null) {
-            showAuthMenu();
-        }
-        
-        // Main application loop
         while (true) {
+            // Authentication loop (again after logout or session expiry)
+            while (currentUser == null) {
+                showAuthMenu();
+            }
+            
+            // Main application loop
             showMainMenu();
         }
     }
@@ -77,7 +82,7 @@ public class FinWiseApplication {
                 changeLanguage();
                 break;
             case 4:
-                System.out.println("\n" + langService.t("app.tagline"));
+                System.out.println("\n" + locale.t(MessageKey.APP_TAGLINE));
                 System.out.println("Thank you for using FinWise!");
                 System.exit(0);
                 break;
@@ -88,15 +93,16 @@ public class FinWiseApplication {
     
     private static void signIn() {
         System.out.println("\n========== SIGN IN ==========");
-        System.out.print(langService.t("auth.email") + ": ");
+        System.out.print(locale.t(MessageKey.AUTH_EMAIL) + ": ");
         String email = scanner.nextLine();
         
-        System.out.print(langService.t("auth.password") + ": ");
+        System.out.print(locale.t(MessageKey.AUTH_PASSWORD) + ": ");
         String password = scanner.nextLine();
         
         try {
-            authService.signIn(email, password);
-            currentUser = authService.getCurrentUser();
+            sessionToken = authService.signIn(email, password);
+            authService.setLocale(sessionToken, locale);
+            currentUser = authService.getCurrentUser(sessionToken);
             System.out.println("\n✓ Welcome back, " + currentUser.getFullName() + "!");
             System.out.println("Member since: " + currentUser.getFormattedCreatedDate());
         } catch (Exception e) {
@@ -106,21 +112,22 @@ public class FinWiseApplication {
     
     private static void signUp() {
         System.out.println("\n========== SIGN UP ==========");
-        System.out.print(langService.t("auth.fullName") + ": ");
+        System.out.print(locale.t(MessageKey.AUTH_FULL_NAME) + ": ");
         String fullName = scanner.nextLine();
         
-        System.out.print(langService.t("auth.email") + ": ");
+        System.out.print(locale.t(MessageKey.AUTH_EMAIL) + ": ");
         String email = scanner.nextLine();
         
-        System.out.print(langService.t("auth.phone") + " (optional): ");
+        System.out.print(locale.t(MessageKey.AUTH_PHONE) + " (optional): ");
         String phone = scanner.nextLine();
         
-        System.out.print(langService.t("auth.password") + ": ");
+        System.out.print(locale.t(MessageKey.AUTH_PASSWORD) + ": ");
         String password = scanner.nextLine();
         
         try {
-            authService.signUp(email, fullName, password, phone);
-            currentUser = authService.getCurrentUser();
+            sessionToken = authService.signUp(email, fullName, password, phone);
+            authService.setLocale(sessionToken, locale);
+            currentUser = authService.getCurrentUser(sessionToken);
             System.out.println("\n✓ Account created successfully!");
             System.out.println("Welcome, " + fullName + "!");
         } catch (Exception e) {
@@ -142,50 +149,82 @@ public class FinWiseApplication {
         
         if (choice > 0 && choice <= Math.min(10, languages.size())) {
             Language selected = languages.get(choice - 1);
-            langService.setLanguage(selected.getCode());
+            LocaleContext context = langService.getContext(selected.getCode());
+            if (context == null) {
+                System.out.println("\n" + selected.getNativeName() + " is not available yet.");
+                return;
+            }
+            locale = context;
+            authService.setLocale(sessionToken, locale);
             System.out.println("\n✓ Language changed to " + selected.getNativeName());
         }
     }
     
+    // Screens whose static text is built once per locale, or once if none of it is translated (holes: "{}")
+    private static final ScreenTemplate.Cache MAIN_MENU = new ScreenTemplate.Cache(locale ->
+        "\n===============================================\n" +
+        "           FINWISE MAIN MENU\n" +
+        "===============================================\n" +
+        "User: {}\n" +
+        "Wallet Balance: ₹{}\n" +
+        "\n" +
+        "📊 " + locale.t(MessageKey.NAV_ECOPLANNING).toUpperCase(Locale.ROOT) + "\n" +
+        "  1. Annual/Monthly Planning (Dashboard)\n" +
+        "  2. Expense Tracker\n" +
+        "  3. Budget Planner\n" +
+        "  4. Investment Overview\n" +
+        "  5. Bills & Reminders\n" +
+        "\n" +
+        "💰 FINANCIAL TOOLS\n" +
+        "  6. Wallet Management\n" +
+        "  7. SMS/Quick Transfer\n" +
+        "  8. Multi-Account Management\n" +
+        "\n" +
+        "📈 REPORTS & ANALYTICS\n" +
+        "  9. Financial Reports\n" +
+        " 10. Tax Documents\n" +
+        "\n" +
+        "🤖 AI & SECURITY\n" +
+        " 11. AI Virtual Assistant\n" +
+        " 12. Security Features\n" +
+        "\n" +
+        "⚙️  OTHER\n" +
+        " 13. " + locale.t(MessageKey.NAV_SETTINGS) + "\n" +
+        " 14. About FinWise\n" +
+        " 15. Logout\n" +
+        "\n" +
+        "Enter your choice: ");
+    
+    private static final ScreenTemplate BILL_REMINDERS = new ScreenTemplate(
+        "\n========== BILL REMINDERS ==========\n" +
+        "1. Add Bill\n" +
+        "2. View All Bills\n" +
+        "3. View Upcoming Bills\n" +
+        "4. Back\n" +
+        "\nEnter your choice: ");
+    
+    private static final ScreenTemplate.Cache WALLET = new ScreenTemplate.Cache(locale ->
+        "\n========== " + locale.t(MessageKey.NAV_WALLET).toUpperCase(Locale.ROOT) + " ==========\n" +
+        "Balance: ₹{}\n" +
+        "\n1. Add Money\n" +
+        "2. Send Payment\n" +
+        "3. Transaction History\n" +
+        "4. Back\n" +
+        "\nEnter your choice: ");
+    
     private static void showMainMenu() {
-        System.out.println("\n===============================================");
-        System.out.println("           FINWISE MAIN MENU");
-        System.out.println("===============================================");
-        System.out.println("User: " + currentUser.getFullName());
-        System.out.println("Wallet Balance: ₹" + String.format("%,.2f", currentUser.getWalletBalance()));
-        System.out.println();
-        
-        System.out.println("📊 ECOPLANNING");
-        System.out.println("  1. Annual/Monthly Planning (Dashboard)");
-        System.out.println("  2. Expense Tracker");
-        System.out.println("  3. Budget Planner");
-        System.out.println("  4. Investment Overview");
-        System.out.println("  5. Bills & Reminders");
-        System.out.println();
-        
-        System.out.println("💰 FINANCIAL TOOLS");
-        System.out.println("  6. Wallet Management");
-        System.out.println("  7. SMS/Quick Transfer");
-        System.out.println("  8. Multi-Account Management");
-        System.out.println();
-        
-        System.out.println("📈 REPORTS & ANALYTICS");
-        System.out.println("  9. Financial Reports");
-        System.out.println(" 10. Tax Documents");
-        System.out.println();
-        
-        System.out.println("🤖 AI & SECURITY");
-        System.out.println(" 11. AI Virtual Assistant");
-        System.out.println(" 12. Security Features");
-        System.out.println();
-        
-        System.out.println("⚙️  OTHER");
-        System.out.println(" 13. Settings");
-        System.out.println(" 14. About FinWise");
-        System.out.println(" 15. Logout");
-        System.out.println();
-        
-        System.out.print("Enter your choice: ");
+        currentUser = authService.getCurrentUser(sessionToken);
+        if (currentUser == null) {
+            System.out.println("\nYour session has expired. Please sign in again.");
+            return;
+        }
+        LocaleContext sessionLocale = authService.getLocale(sessionToken);
+        if (sessionLocale != null) {
+            locale = sessionLocale;
+        }
+        
+        MAIN_MENU.get(locale).print(currentUser.getFullName(),
+            OutputSink.formatAmount(currentUser.getWalletBalancePaise()));
         
         int choice = getIntInput();
         
@@ -299,34 +338,42 @@ public class FinWiseApplication {
         // Check budget
         Budget budget = currentUser.getBudgetForCategory(category);
         if (budget != null) {
-            double spent = currentUser.getExpensesForCategory(category);
-            double remaining = budget.getLimit() - spent;
+            long spent = currentUser.getExpensesForCategoryPaise(category);
+            long remaining = Money.subtract(budget.getLimitPaise(), spent);
             System.out.println("\nBudget for " + category + ": ₹" + String.format("%,.2f", budget.getLimit()));
-            System.out.println("Spent: ₹" + String.format("%,.2f", spent));
-            System.out.println("Remaining: ₹" + String.format("%,.2f", remaining));
+            System.out.println("Spent: ₹" + String.format("%,.2f", Money.toRupees(spent)));
+            System.out.println("Remaining: ₹" + String.format("%,.2f", Money.toRupees(remaining)));
             
             if (remaining < 0) {
                 System.out.println("⚠️  WARNING: You've exceeded your budget!");
-            } else if (remaining < budget.getLimit() * 0.2) {
+            } else if (remaining < Money.percentOf(budget.getLimitPaise(), 20)) {
                 System.out.println("⚠️  ALERT: You're running low on budget!");
             }
         }
     }
     
     private static void viewAllExpenses() {
-        System.out.println("\n========== ALL EXPENSES ==========");
+        OutputSink out = OutputSink.console();
+        out.append("\n========== ALL EXPENSES ==========\n");
         List<Expense> expenses = currentUser.getAllExpenses();
         
         if (expenses.isEmpty()) {
-            System.out.println("No expenses recorded yet.");
+            out.append("No expenses recorded yet.\n");
         } else {
-            double total = 0;
+            long total = 0;
             for (Expense e : expenses) {
-                System.out.println(e);
-                total += e.getAmount();
+                writeExpense(out, e);
+                total = Money.add(total, e.getAmountPaise());
             }
-            System.out.println("\nTotal Expenses: ₹" + String.format("%,.2f", total));
+            out.append("\nTotal Expenses: ").appendRupees(total).newLine();
         }
+        out.flush();
+    }
+    
+    // Same layout as Expense.toString, written without allocating
+    private static void writeExpense(OutputSink out, Expense e) {
+        out.append('[').appendDate(e.getDate()).append("] ").append(e.getDescription()).append(" - ")
+            .appendRupees(e.getAmountPaise()).append(" (").append(e.getCategory()).append(")\n");
     }
     
     private static void viewExpensesByCategory() {
@@ -339,12 +386,14 @@ public class FinWiseApplication {
         if (expenses.isEmpty()) {
             System.out.println("No expenses in this category.");
         } else {
-            double total = 0;
+            OutputSink out = OutputSink.console();
+            long total = 0;
             for (Expense e : expenses) {
-                System.out.println(e);
-                total += e.getAmount();
+                writeExpense(out, e);
+                total = Money.add(total, e.getAmountPaise());
             }
-            System.out.println("\nTotal: ₹" + String.format("%,.2f", total));
+            out.append("\nTotal: ").appendRupees(total).newLine();
+            out.flush();
         }
     }
     
@@ -396,14 +445,14 @@ public class FinWiseApplication {
             System.out.println("No budgets set yet.");
         } else {
             for (Budget b : budgets) {
-                double spent = currentUser.getExpensesForCategory(b.getCategory());
-                double remaining = b.getLimit() - spent;
-                double percentage = (spent / b.getLimit()) * 100;
+                long spent = currentUser.getExpensesForCategoryPaise(b.getCategory());
+                long remaining = Money.subtract(b.getLimitPaise(), spent);
+                double percentage = Money.percent(spent, b.getLimitPaise());
                 
                 System.out.println("\n" + b.getCategory() + ":");
                 System.out.println("  Budget: ₹" + String.format("%,.2f", b.getLimit()));
-                System.out.println("  Spent: ₹" + String.format("%,.2f", spent));
-                System.out.println("  Remaining: ₹" + String.format("%,.2f", remaining));
+                System.out.println("  Spent: ₹" + String.format("%,.2f", Money.toRupees(spent)));
+                System.out.println("  Remaining: ₹" + String.format("%,.2f", Money.toRupees(remaining)));
                 System.out.println("  Used: " + String.format("%.1f", percentage) + "%");
                 
                 if (percentage > 100) {
@@ -426,19 +475,19 @@ public class FinWiseApplication {
             return;
         }
         
-        double totalBudget = 0;
-        double totalSpent = 0;
+        long totalBudget = 0;
+        long totalSpent = 0;
         
         for (Budget b : budgets) {
-            totalBudget += b.getLimit();
-            totalSpent += currentUser.getExpensesForCategory(b.getCategory());
+            totalBudget = Money.add(totalBudget, b.getLimitPaise());
+            totalSpent = Money.add(totalSpent, currentUser.getExpensesForCategoryPaise(b.getCategory()));
         }
         
-        System.out.println("Total Budget: ₹" + String.format("%,.2f", totalBudget));
-        System.out.println("Total Spent: ₹" + String.format("%,.2f", totalSpent));
-        System.out.println("Remaining: ₹" + String.format("%,.2f", totalBudget - totalSpent));
+        System.out.println("Total Budget: ₹" + String.format("%,.2f", Money.toRupees(totalBudget)));
+        System.out.println("Total Spent: ₹" + String.format("%,.2f", Money.toRupees(totalSpent)));
+        System.out.println("Remaining: ₹" + String.format("%,.2f", Money.toRupees(totalBudget - totalSpent)));
         
-        double overallPercentage = (totalSpent / totalBudget) * 100;
+        double overallPercentage = Money.percent(totalSpent, totalBudget);
         System.out.println("Overall Usage: " + String.format("%.1f", overallPercentage) + "%");
         
         System.out.println("\n🤖 AI Suggestion:");
@@ -467,18 +516,18 @@ public class FinWiseApplication {
                 addInvestment();
             }
         } else {
-            double totalValue = 0;
-            double totalGain = 0;
+            long totalValue = 0;
+            long totalGain = 0;
             
             for (Investment inv : investments) {
                 System.out.println("\n" + inv);
-                totalValue += inv.getCurrentValue();
-                totalGain += inv.getGain();
+                totalValue = Money.add(totalValue, inv.getCurrentPaise());
+                totalGain = Money.add(totalGain, inv.getGainPaise());
             }
             
             System.out.println("\n--- Summary ---");
-            System.out.println("Total Investment Value: ₹" + String.format("%,.2f", totalValue));
-            System.out.println("Total Gain/Loss: ₹" + String.format("%,.2f", totalGain));
+            System.out.println("Total Investment Value: ₹" + String.format("%,.2f", Money.toRupees(totalValue)));
+            System.out.println("Total Gain/Loss: ₹" + String.format("%,.2f", Money.toRupees(totalGain)));
             
             System.out.println("\n1. Add Investment");
             System.out.println("2. Back");
@@ -514,12 +563,7 @@ public class FinWiseApplication {
     }
     
     private static void showBillReminders() {
-        System.out.println("\n========== BILL REMINDERS ==========");
-        System.out.println("1. Add Bill");
-        System.out.println("2. View All Bills");
-        System.out.println("3. View Upcoming Bills");
-        System.out.println("4. Back");
-        System.out.print("\nEnter your choice: ");
+        BILL_REMINDERS.print();
         
         int choice = getIntInput();
         
@@ -549,6 +593,10 @@ public class FinWiseApplication {
         
         System.out.print("Due Day of Month (1-31): ");
         int dueDay = getIntInput();
+        while (dueDay < Bill.MIN_DUE_DAY || dueDay > Bill.MAX_DUE_DAY) {
+            System.out.print("Invalid day. Please enter a day from 1 to 31: ");
+            dueDay = getIntInput();
+        }
         
         Bill bill = new Bill(name, amount, dueDay);
         currentUser.addBill(bill);
@@ -557,16 +605,20 @@ public class FinWiseApplication {
     }
     
     private static void viewAllBills() {
-        System.out.println("\n========== ALL BILLS ==========");
+        OutputSink out = OutputSink.console();
+        out.append("\n========== ALL BILLS ==========\n");
         List<Bill> bills = currentUser.getAllBills();
         
         if (bills.isEmpty()) {
-            System.out.println("No bills added yet.");
+            out.append("No bills added yet.\n");
         } else {
             for (Bill bill : bills) {
-                System.out.println(bill);
+                // Same layout as Bill.toString
+                out.append(bill.getName()).append(" - ").appendRupees(bill.getAmountPaise())
+                    .append(" (Due: Day ").append(bill.getDueDay()).append(")\n");
             }
         }
+        out.flush();
     }
     
     private static void viewUpcomingBills() {
@@ -583,14 +635,7 @@ public class FinWiseApplication {
     }
     
     private static void showWallet() {
-        System.out.println("\n========== WALLET ==========");
-        System.out.println("Balance: ₹" + String.format("%,.2f", currentUser.getWalletBalance()));
-        
-        System.out.println("\n1. Add Money");
-        System.out.println("2. Send Payment");
-        System.out.println("3. Transaction History");
-        System.out.println("4. Back");
-        System.out.print("\nEnter your choice: ");
+        WALLET.get(locale).print(OutputSink.formatAmount(currentUser.getWalletBalancePaise()));
         
         int choice = getIntInput();
         
@@ -615,10 +660,10 @@ public class FinWiseApplication {
         System.out.print("\nAmount to add: ₹");
         double amount = getDoubleInput();
         
-        if (amount > 0) {
-            currentUser.addToWallet(amount);
-            System.out.println("\n✓ ₹" + String.format("%,.2f", amount) + " added to wallet!");
-            System.out.println("New balance: ₹" + String.format("%,.2f", currentUser.getWalletBalance()));
+        if (Money.ofRupees(amount) > 0) {
+            wallet.deposit(currentUser, Money.ofRupees(amount), "Wallet Top-up", "Deposit");
+            System.out.println("\n✓ ₹" + OutputSink.formatAmount(Money.ofRupees(amount)) + " added to wallet!");
+            System.out.println("New balance: ₹" + OutputSink.formatAmount(currentUser.getWalletBalancePaise()));
         } else {
             System.out.println("Invalid amount.");
         }
@@ -631,31 +676,72 @@ public class FinWiseApplication {
         System.out.print("Amount: ₹");
         double amount = getDoubleInput();
         
-        if (amount <= currentUser.getWalletBalance()) {
-            currentUser.deductFromWallet(amount);
-            Transaction transaction = new Transaction("Transfer to " + recipient, -amount, "Transfer", "send");
-            currentUser.addTransaction(transaction);
-            
-            System.out.println("\n✓ ₹" + String.format("%,.2f", amount) + " sent successfully!");
-            System.out.println("New balance: ₹" + String.format("%,.2f", currentUser.getWalletBalance()));
-        } else {
-            System.out.println("\n✗ Insufficient balance!");
+        try {
+            Transaction transaction = settlement.send(currentUser, recipient, Money.ofRupees(amount), "Transfer", "").join();
+            if (transaction != null) {
+                System.out.println("\n✓ ₹" + OutputSink.formatAmount(Money.ofRupees(amount)) + " sent successfully!");
+                System.out.println("New balance: ₹" + OutputSink.formatAmount(currentUser.getWalletBalancePaise()));
+            } else {
+                System.out.println("\n✗ Insufficient balance!");
+            }
+        } catch (Exception e) {
+            System.out.println("\n✗ " + e.getMessage());
         }
     }
     
+    private static final int HISTORY_PAGE_SIZE = 20;
+    
+    /**
+     * Transaction history, one page at a time (newest first)
+     */
     private static void showTransactionHistory() {
-        System.out.println("\n========== TRANSACTION HISTORY ==========");
-        List<Transaction> transactions = currentUser.getAllTransactions();
+        OutputSink out = OutputSink.console();
+        int pages = (currentUser.getTransactionCount() + HISTORY_PAGE_SIZE - 1) / HISTORY_PAGE_SIZE;
+        long cursor = User.NEWEST;
+        int pageNumber = 1;
         
-        if (transactions.isEmpty()) {
-            System.out.println("No transactions yet.");
-        } else {
-            for (Transaction t : transactions) {
-                System.out.println(t);
+        while (true) {
+            TransactionPage page = currentUser.transactionsPage(cursor, HISTORY_PAGE_SIZE);
+            out.append("\n========== TRANSACTION HISTORY ==========\n");
+            if (page.isEmpty()) {
+                out.append("No transactions yet.\n");
+                out.flush();
+                return;
+            }
+            for (Transaction t : page.getTransactions()) {
+                writeTransaction(out, t);
+            }
+            out.append("\nPage ").append(pageNumber).append(" of ").append(Math.max(pages, pageNumber)).append(" (newest first)\n");
+            if (!page.hasNext() && !page.hasPrevious()) {
+                out.flush();
+                return;
+            }
+            out.append(page.hasNext() ? "N = older, " : "").append(page.hasPrevious() ? "P = newer, " : "")
+                .append("Enter = back: ");
+            out.flush();
+            
+            String input = scanner.nextLine().trim();
+            if (input.equalsIgnoreCase("n") && page.hasNext()) {
+                cursor = page.getNextCursor();
+                pageNumber++;
+            } else if (input.equalsIgnoreCase("p") && page.hasPrevious()) {
+                cursor = page.getPreviousCursor();
+                pageNumber--;
+            } else if (input.isEmpty()) {
+                return;
             }
         }
     }
     
+    // Same layout as Transaction.toString, written without allocating
+    private static void writeTransaction(OutputSink out, Transaction t) {
+        out.append('[').appendDate(t.getDate()).append("] ").append(t.getDescription()).append(": ");
+        if (t.getTransactionType().equals("receive")) {
+            out.append('+');
+        }
+        out.appendRupees(Math.abs(t.getAmountPaise())).append(" (").append(t.getType()).append(")\n");
+    }
+    
     private static void showSMSTransfer() {
         System.out.println("\n========== SMS/QUICK TRANSFER ==========");
         System.out.println("Send money using phone number");
@@ -663,25 +749,30 @@ public class FinWiseApplication {
         System.out.print("\nRecipient Phone Number: ");
         String phone = scanner.nextLine();
         
+        User recipient = settlement.findRecipient(phone);
+        if (recipient == null) {
+            System.out.println("\n✗ No FinWise user found for " + phone + ".");
+            pressEnterToContinue();
+            return;
+        }
+        System.out.println("Recipient: " + recipient.getFullName() + " (FinWise user)");
+        
         System.out.print("Amount: ₹");
         double amount = getDoubleInput();
         
         System.out.print("Note (optional): ");
         String note = scanner.nextLine();
         
-        if (amount <= currentUser.getWalletBalance()) {
-            currentUser.deductFromWallet(amount);
-            String description = "SMS Transfer to " + phone;
-            if (!note.isEmpty()) {
-                description += " - " + note;
+        try {
+            Transaction transaction = settlement.send(currentUser, phone, Money.ofRupees(amount), "SMS Transfer", note).join();
+            if (transaction != null) {
+                System.out.println("\n✓ ₹" + String.format("%,.2f", amount) + " sent to " + recipient.getFullName() + " via SMS!");
+                System.out.println("Transaction ID: " + transaction.getId());
+            } else {
+                System.out.println("\n✗ Insufficient balance!");
             }
-            Transaction transaction = new Transaction(description, -amount, "SMS Transfer", "send");
-            currentUser.addTransaction(transaction);
-            
-            System.out.println("\n✓ ₹" + String.format("%,.2f", amount) + " sent via SMS!");
-            System.out.println("Transaction ID: " + transaction.getDate());
-        } else {
-            System.out.println("\n✗ Insufficient balance!");
+        } catch (Exception e) {
+            System.out.println("\n✗ " + e.getMessage());
         }
         
         pressEnterToContinue();
@@ -702,14 +793,14 @@ public class FinWiseApplication {
                 addAccount();
             }
         } else {
-            double totalBalance = 0;
+            long totalBalance = 0;
             for (Account acc : accounts) {
                 System.out.println(acc);
                 System.out.println();
-                totalBalance += acc.getBalance();
+                totalBalance = Money.add(totalBalance, acc.getBalancePaise());
             }
             
-            System.out.println("Total Balance Across All Accounts: ₹" + String.format("%,.2f", totalBalance));
+            System.out.println("Total Balance Across All Accounts: ₹" + String.format("%,.2f", Money.toRupees(totalBalance)));
             
             System.out.println("\n1. Add Account");
             System.out.println("2. Back");
@@ -748,26 +839,31 @@ public class FinWiseApplication {
     }
     
     private static void showReports() {
-        System.out.println("\n========== FINANCIAL REPORTS & ANALYTICS ==========");
+        OutputSink out = OutputSink.console();
+        out.append("\n========== FINANCIAL REPORTS & ANALYTICS ==========\n");
+        
+        long income = currentUser.getTotalIncomePaise();
+        long expenses = currentUser.getTotalExpensesPaise();
         
-        System.out.println("\n📊 Monthly Summary");
-        System.out.println("   Total Income: ₹" + String.format("%,.2f", currentUser.getTotalIncome()));
-        System.out.println("   Total Expenses: ₹" + String.format("%,.2f", currentUser.getTotalExpenses()));
-        System.out.println("   Net Savings: ₹" + String.format("%,.2f", currentUser.getTotalIncome() - currentUser.getTotalExpenses()));
+        out.append("\n📊 Monthly Summary\n");
+        out.append("   Total Income: ").appendRupees(income).newLine();
+        out.append("   Total Expenses: ").appendRupees(expenses).newLine();
+        out.append("   Net Savings: ").appendRupees(income - expenses).newLine();
         
-        System.out.println("\n📈 Expense Breakdown by Category");
+        out.append("\n📈 Expense Breakdown by Category\n");
         String[] categories = {"Food", "Transport", "Shopping", "Bills", "Entertainment"};
         for (String category : categories) {
-            double amount = currentUser.getExpensesForCategory(category);
+            long amount = currentUser.getExpensesForCategoryPaise(category);
             if (amount > 0) {
-                System.out.printf("   %s: ₹%,.2f\n", category, amount);
+                out.append("   ").append(category).append(": ").appendRupees(amount).newLine();
             }
         }
         
-        System.out.println("\n💡 AI Insights");
-        System.out.println("   • Your spending is " + (currentUser.getTotalExpenses() < currentUser.getTotalIncome() * 0.6 ? "healthy" : "above average"));
-        System.out.println("   • Savings rate: " + String.format("%.1f%%", ((currentUser.getTotalIncome() - currentUser.getTotalExpenses()) / currentUser.getTotalIncome()) * 100));
-        System.out.println("   • Recommended action: Continue tracking expenses regularly");
+        out.append("\n💡 AI Insights\n");
+        out.append("   • Your spending is ").append(expenses < Money.percentOf(income, 60) ? "healthy" : "above average").newLine();
+        out.append("   • Savings rate: ").append(String.format("%.1f%%", Money.percent(income - expenses, income))).newLine();
+        out.append("   • Recommended action: Continue tracking expenses regularly\n");
+        out.flush();
         
         pressEnterToContinue();
     }
@@ -871,7 +967,7 @@ public class FinWiseApplication {
         System.out.println("Email: " + currentUser.getEmail());
         System.out.println("Phone: " + (currentUser.getPhone() != null ? currentUser.getPhone() : "Not set"));
         System.out.println("Member Since: " + currentUser.getFormattedCreatedDate());
-        System.out.println("Language: " + langService.getCurrentLanguage());
+        System.out.println("Language: " + locale.getLanguageCode());
         System.out.println("\nFinancial Summary:");
         System.out.println("Wallet Balance: ₹" + String.format("%,.2f", currentUser.getWalletBalance()));
         System.out.println("Total Expenses: ₹" + String.format("%,.2f", currentUser.getTotalExpenses()));
@@ -944,7 +1040,8 @@ public class FinWiseApplication {
         String confirm = scanner.nextLine();
         
         if (confirm.equalsIgnoreCase("y")) {
-            authService.signOut();
+            authService.signOut(sessionToken);
+            sessionToken = null;
             currentUser = null;
             System.out.println("\n✓ Logged out successfully!");
             System.out.println("Thank you for using FinWise!");
@@ -979,177 +1076,3 @@ public class FinWiseApplication {
         scanner.nextLine();
     }
 }
-
-// Model classes (if not in separate files)
-class Expense {
-    private String description;
-    private double amount;
-    private String category;
-    private LocalDate date;
-    
-    public Expense(String description, double amount, String category) {
-        this.description = description;
-        this.amount = amount;
-        this.category = category;
-        this.date = LocalDate.now();
-    }
-    
-    public String getDescription() { return description; }
-    public double getAmount() { return amount; }
-    public String getCategory() { return category; }
-    public LocalDate getDate() { return date; }
-    
-    @Override
-    public String toString() {
-        return String.format("[%s] %s - ₹%.2f (%s)", 
-            date.format(DateTimeFormatter.ofPattern("MMM dd")), 
-            description, amount, category);
-    }
-}
-
-class Budget {
-    private String category;
-    private double limit;
-    
-    public Budget(String category, double limit) {
-        this.category = category;
-        this.limit = limit;
-    }
-    
-    public String getCategory() { return category; }
-    public double getLimit() { return limit; }
-    
-    @Override
-    public String toString() {
-        return String.format("%s: ₹%.2f", category, limit);
-    }
-}
-
-class Transaction {
-    private String description;
-    private double amount;
-    private String type;
-    private String transactionType; // "receive" or "send"
-    private LocalDate date;
-    
-    public Transaction(String description, double amount, String type, String transactionType) {
-        this.description = description;
-        this.amount = amount;
-        this.type = type;
-        this.transactionType = transactionType;
-        this.date = LocalDate.now();
-    }
-    
-    public String getDescription() { return description; }
-    public double getAmount() { return amount; }
-    public String getType() { return type; }
-    public LocalDate getDate() { return date; }
-    
-    @Override
-    public String toString() {
-        String sign = transactionType.equals("receive") ? "+" : "";
-        return String.format("[%s] %s: %s₹%.2f (%s)", 
-            date.format(DateTimeFormatter.ofPattern("MMM dd")),
-            description, sign, Math.abs(amount), type);
-    }
-}
-
-class Investment {
-    private String name;
-    private double initialAmount;
-    private double currentValue;
-    private String type;
-    private LocalDate purchaseDate;
-    
-    public Investment(String name, double initialAmount, double currentValue, String type) {
-        this.name = name;
-        this.initialAmount = initialAmount;
-        this.currentValue = currentValue;
-        this.type = type;
-        this.purchaseDate = LocalDate.now();
-    }
-    
-    public String getName() { return name; }
-    public double getInitialAmount() { return initialAmount; }
-    public double getCurrentValue() { return currentValue; }
-    public String getType() { return type; }
-    
-    public double getGain() {
-        return currentValue - initialAmount;
-    }
-    
-    public double getReturnPercentage() {
-        return ((currentValue - initialAmount) / initialAmount) * 100;
-    }
-    
-    @Override
-    public String toString() {
-        double gain = getGain();
-        String gainSign = gain >= 0 ? "+" : "";
-        return String.format("%s (%s)\n  Initial: ₹%.2f | Current: ₹%.2f | Gain/Loss: %s₹%.2f (%.1f%%)",
-            name, type, initialAmount, currentValue, gainSign, gain, getReturnPercentage());
-    }
-}
-
-class Bill {
-    private String name;
-    private double amount;
-    private int dueDay;
-    
-    public Bill(String name, double amount, int dueDay) {
-        this.name = name;
-        this.amount = amount;
-        this.dueDay = dueDay;
-    }
-    
-    public String getName() { return name; }
-    public double getAmount() { return amount; }
-    public int getDueDay() { return dueDay; }
-    
-    public int getDaysUntilDue() {
-        LocalDate today = LocalDate.now();
-        int currentDay = today.getDayOfMonth();
-        
-        if (dueDay >= currentDay) {
-            return dueDay - currentDay;
-        } else {
-            LocalDate nextMonth = today.plusMonths(1);
-            LocalDate dueDate = LocalDate.of(nextMonth.getYear(), nextMonth.getMonth(), 
-                Math.min(dueDay, nextMonth.lengthOfMonth()));
-            return (int) java.time.temporal.ChronoUnit.DAYS.between(today, dueDate);
-        }
-    }
-    
-    @Override
-    public String toString() {
-        return String.format("%s - ₹%.2f (Due: Day %d)", name, amount, dueDay);
-    }
-}
-
-class Account {
-    private String name;
-    private String accountNumber;
-    private String bankName;
-    private double balance;
-    private String type;
-    
-    public Account(String name, String accountNumber, String bankName, double balance, String type) {
-        this.name = name;
-        this.accountNumber = accountNumber;
-        this.bankName = bankName;
-        this.balance = balance;
-        this.type = type;
-    }
-    
-    public String getName() { return name; }
-    public String getAccountNumber() { return accountNumber; }
-    public String getBankName() { return bankName; }
-    public double getBalance() { return balance; }
-    public String getType() { return type; }
-    
-    @Override
-    public String toString() {
-        return String.format("%s (%s)\n  Bank: %s | Account: %s | Balance: ₹%.2f",
-            name, type, bankName, accountNumber, balance);
-    }
-}
@@ -0,0 +1,54 @@
+package benchmarks;
+
+import models.PasswordHasher;
+import org.openjdk.jmh.annotations.*;
+import services.AuthService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuthServiceBenchmark - Sign-in with "rows" registered users
+ *
+ * Users are kept in memory only (-Dfinwise.data.dir= is set before the
+ * service starts) and registered with a cheap hash cost so setup stays
+ * quick; the measured sign-ins hit the verification cache, so this is the
+ * lookup and session cost. See PasswordHasherBenchmark for the KDF itself.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthServiceBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    AuthService auth;
+    String[] emails;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        System.setProperty("finwise.data.dir", "");
+        PasswordHasher.setIterations(1);
+        auth = AuthService.getInstance();
+        for (int i = 0; i < rows; i++) {
+            auth.signOut(auth.signUp("user" + i + "@finwise.com", "User " + i, "secret" + i, null));
+        }
+
+        // Sign-ins rotate over a fixed spread of users
+        emails = new String[1024];
+        for (int i = 0; i < emails.length; i++) {
+            int user = (int) ((long) i * rows / emails.length);
+            emails[i] = "User" + user + "@FinWise.com";
+        }
+    }
+
+    @Benchmark
+    public String signIn() throws Exception {
+        int i = next++ & (emails.length - 1);
+        String token = auth.signIn(emails[i], "secret" + (int) ((long) i * rows / emails.length));
+        auth.signOut(token);
+        return token;
+    }
+}
@@ -0,0 +1,34 @@
+package benchmarks;
+
+import models.IdGenerator;
+import org.openjdk.jmh.annotations.*;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IdGeneratorBenchmark - Record id generation, alone and with many threads
+ * creating records at once, against the random UUIDs used before
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+    @Benchmark
+    public long next() {
+        return IdGenerator.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long nextContended() {
+        return IdGenerator.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID randomUuidContended() {
+        return UUID.randomUUID();
+    }
+}
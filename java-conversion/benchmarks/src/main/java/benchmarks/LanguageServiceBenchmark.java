@@ -0,0 +1,46 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import services.LanguageService;
+import services.LocaleContext;
+import services.MessageKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LanguageServiceBenchmark - Translation lookups
+ *
+ * The message catalog is fixed, so instead of a data size this varies the
+ * language (English hits directly, others may fall back) and the key kind.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LanguageServiceBenchmark {
+    @Param({"en", "hi", "gu"})
+    public String language;
+
+    LocaleContext locale;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        locale = LanguageService.getInstance().getContext(language);
+    }
+
+    @Benchmark
+    public String translate() {
+        return locale.t(MessageKey.AUTH_PASSWORD);
+    }
+
+    @Benchmark
+    public String translateByName() {
+        return locale.t("auth.password");
+    }
+
+    @Benchmark
+    public String translateMissing() {
+        return locale.t("no.such.key");
+    }
+}
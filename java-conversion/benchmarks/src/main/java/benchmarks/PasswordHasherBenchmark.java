@@ -0,0 +1,41 @@
+package benchmarks;
+
+import models.PasswordHasher;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PasswordHasherBenchmark - Logins per second per core at a given hash cost
+ *
+ * "verify" runs the full KDF every time (cache disabled); "verifyCached"
+ * is a repeat sign-in inside the cache window.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHasherBenchmark {
+    @Param({"100000", "310000", "600000"})
+    public int iterations;
+
+    String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PasswordHasher.setIterations(iterations);
+        hash = PasswordHasher.hash("password123");
+    }
+
+    @Benchmark
+    public boolean verify() {
+        PasswordHasher.invalidate(hash);
+        return PasswordHasher.verify("password123", hash);
+    }
+
+    @Benchmark
+    public boolean verifyCached() {
+        return PasswordHasher.verify("password123", hash);
+    }
+}
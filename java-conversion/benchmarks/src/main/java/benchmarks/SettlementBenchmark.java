@@ -0,0 +1,77 @@
+package benchmarks;
+
+import models.PasswordHasher;
+import models.Transaction;
+import models.User;
+import org.openjdk.jmh.annotations.*;
+import services.AuthService;
+import services.SettlementService;
+import services.WalletService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SettlementBenchmark - User-to-user payments from many threads at once
+ *
+ * Eight threads send payments between registered users (found by email or
+ * phone, as the app does) through the settlement ring. "send" queues and
+ * moves on, measuring how fast the single writer drains the ring; "sendAndWait"
+ * waits for each settlement, as a payment screen does. Every payment records
+ * two transactions, so long runs want a larger heap.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(8)
+public class SettlementBenchmark {
+    static final int USERS = 1000;
+
+    @State(Scope.Benchmark)
+    public static class Payments {
+        SettlementService settlement;
+        User[] users;
+        String[] recipients;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            System.setProperty("finwise.data.dir", "");
+            PasswordHasher.setIterations(1);
+            AuthService auth = AuthService.getInstance();
+            WalletService wallet = WalletService.getInstance();
+            settlement = new SettlementService(auth, wallet, SettlementService.DEFAULT_CAPACITY);
+            users = new User[USERS];
+            recipients = new String[USERS];
+            for (int i = 0; i < USERS; i++) {
+                String email = "payee" + i + "@finwise.com";
+                String phone = String.format("+91 9%09d", i);
+                auth.signOut(auth.signUp(email, "Payee " + i, "secret", phone));
+                users[i] = auth.findUserByEmail(email);
+                recipients[i] = (i & 1) == 0 ? email : phone;
+                wallet.deposit(users[i], 1_000_000_000_000L, "Opening balance", "Deposit");
+            }
+        }
+    }
+
+    private static CompletableFuture<Transaction> pay(Payments state) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(USERS);
+        int to = random.nextInt(USERS - 1);
+        if (to >= from) {
+            to++;
+        }
+        return state.settlement.send(state.users[from], state.recipients[to], 100, "Transfer", "");
+    }
+
+    @Benchmark
+    public CompletableFuture<Transaction> send(Payments state) throws Exception {
+        return pay(state);
+    }
+
+    @Benchmark
+    public Transaction sendAndWait(Payments state) throws Exception {
+        return pay(state).join();
+    }
+}
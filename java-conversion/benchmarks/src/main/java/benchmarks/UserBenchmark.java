@@ -0,0 +1,192 @@
+package benchmarks;
+
+import models.*;
+import org.openjdk.jmh.annotations.*;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserBenchmark - Per-user ledger operations at increasing history sizes
+ *
+ * Each state fills a fresh user with "rows" entries once per fork, so the
+ * measured call sees a realistic amount of data behind it. The largest
+ * sizes need a big heap, e.g. -jvmArgsAppend -Xmx8g, or pick sizes with
+ * -p rows=1000,100000.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserBenchmark {
+    static final String[] CATEGORIES = {
+        "Food", "Transport", "Shopping", "Bills", "Entertainment", "Health",
+        "Education", "Rent", "Groceries", "Travel", "Gifts", "Other"
+    };
+    static final String[] PERIODS = { "2023", "2024", "2025", "2026" };
+    static final String[] MONTH_PERIODS = new String[12];
+    static {
+        for (int m = 0; m < MONTH_PERIODS.length; m++) {
+            MONTH_PERIODS[m] = PeriodKey.format(PeriodKey.ofMonth(2024, m + 1));
+        }
+    }
+
+    // A shared pool keeps per-row dates from dominating the heap
+    static final LocalDate[] DATES = new LocalDate[730];
+    static {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < DATES.length; i++) {
+            DATES[i] = start.plusDays(i);
+        }
+    }
+
+    static User newUser() {
+        return new User("bench@finwise.com", "Bench User", "password123");
+    }
+
+    @State(Scope.Benchmark)
+    public static class Expenses {
+        @Param({"1000", "10000", "100000", "1000000", "10000000"})
+        public int rows;
+
+        User user;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            user = newUser();
+            for (int i = 0; i < rows; i++) {
+                user.addExpense(new Expense("Expense " + (i & 1023), 100 + (i % 5000),
+                    CATEGORIES[i % CATEGORIES.length], DATES[i % DATES.length]));
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Transactions {
+        @Param({"1000", "10000", "100000", "1000000", "10000000"})
+        public int rows;
+
+        User user;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            user = newUser();
+            for (int i = 0; i < rows; i++) {
+                boolean incoming = (i & 1) == 0;
+                user.addTransaction(new Transaction(incoming ? "Salary" : "Payment",
+                    incoming ? 5000 : -1200, incoming ? "income" : "transfer",
+                    incoming ? "receive" : "send", DATES[i % DATES.length]));
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Bills {
+        @Param({"1000", "10000", "100000", "1000000", "10000000"})
+        public int rows;
+
+        User user;
+        Bill bill;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            // Pin "today" so the bills falling due are the same on every run
+            ZoneId zone = ZoneId.systemDefault();
+            Today.setClock(Clock.fixed(LocalDate.of(2024, 6, 15).atStartOfDay(zone).toInstant(), zone));
+            user = newUser();
+            bill = new Bill("Electricity", 1800, 5);
+            for (int i = 0; i < rows; i++) {
+                user.addBill(new Bill("Bill " + (i & 1023), 500 + (i % 2000), 1 + (i % 28)));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            Today.useSystemClock();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExtraIncomes {
+        @Param({"1000", "10000", "100000", "1000000", "10000000"})
+        public int rows;
+
+        User user;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            user = newUser();
+            // Half filed under a year, half under a month of 2024
+            for (int i = 0; i < rows; i++) {
+                String period = (i & 1) == 0 ? PERIODS[(i >> 1) % PERIODS.length] : MONTH_PERIODS[(i >> 1) % 12];
+                user.addExtraIncome(new ExtraIncome("Bonus", 1000 + (i % 500),
+                    period, DATES[i % DATES.length]));
+            }
+        }
+    }
+
+    /**
+     * Cost of one more expense on top of the existing history (the history
+     * keeps growing during the run, as it would for a real user)
+     */
+    @Benchmark
+    public void addExpense(Expenses state) {
+        int i = state.next++;
+        state.user.addExpense(new Expense("Coffee", 150, CATEGORIES[i % CATEGORIES.length],
+            DATES[i % DATES.length]));
+    }
+
+    @Benchmark
+    public double getExpensesForCategory(Expenses state) {
+        return state.user.getExpensesForCategory("Groceries");
+    }
+
+    @Benchmark
+    public double getTotalIncome(Transactions state) {
+        return state.user.getTotalIncome();
+    }
+
+    @Benchmark
+    public TransactionPage transactionsPage(Transactions state) {
+        return state.user.transactionsPage(User.NEWEST, 20);
+    }
+
+    @Benchmark
+    public List<Bill> getUpcomingBills(Bills state) {
+        return state.user.getUpcomingBills(7);
+    }
+
+    @Benchmark
+    public int getDaysUntilDue(Bills state) {
+        return state.bill.getDaysUntilDue();
+    }
+
+    /**
+     * A year's total, rolling up the incomes filed under its months
+     */
+    @Benchmark
+    public double getTotalExtraIncome(ExtraIncomes state) {
+        return state.user.getTotalExtraIncome("2024");
+    }
+
+    @Benchmark
+    public List<ExtraIncome> getExtraIncomesForMonth(ExtraIncomes state) {
+        return state.user.getExtraIncomes("March 2024");
+    }
+
+    /**
+     * One allocation change, as a bulk import would do repeatedly; with many
+     * extra incomes on record this must not rescan them
+     */
+    @Benchmark
+    public double setAnnualAllocations(ExtraIncomes state) {
+        state.user.setAnnualExpenses(3720000);
+        state.user.setAnnualSavings(1240000);
+        state.user.setAnnualInvestments(830000);
+        return state.user.getAnnualRemaining("2024");
+    }
+}
@@ -0,0 +1,62 @@
+package benchmarks;
+
+import models.PasswordHasher;
+import models.Transaction;
+import models.User;
+import services.WalletService;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WalletBenchmark - Transfer throughput with many threads paying at once
+ *
+ * Every operation moves money between two random wallets out of "users";
+ * with few users nearly every transfer contends for the same locks, with
+ * many they mostly run side by side. Wallets are recreated each iteration
+ * so the recorded transactions do not pile up across the run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class WalletBenchmark {
+    @State(Scope.Benchmark)
+    public static class Wallets {
+        @Param({"2", "64", "10000"})
+        public int users;
+
+        WalletService wallet = new WalletService(WalletService.DEFAULT_STRIPES);
+        User[] wallets;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            // Password hashing is not what is measured here
+            PasswordHasher.setIterations(1);
+            wallets = new User[users];
+            for (int i = 0; i < users; i++) {
+                wallets[i] = new User("wallet" + i + "@finwise.com", "Wallet " + i, "password123");
+                wallet.deposit(wallets[i], 1_000_000_000L, "Opening balance", "Deposit");
+            }
+        }
+    }
+
+    @Benchmark
+    public Transaction transfer(Wallets state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(state.users);
+        int to = random.nextInt(state.users - 1);
+        if (to >= from) {
+            to++;
+        }
+        return state.wallet.transfer(state.wallets[from], state.wallets[to], 100, "Transfer out", "Transfer in", "Transfer");
+    }
+
+    @Benchmark
+    public Transaction withdraw(Wallets state) {
+        User user = state.wallets[ThreadLocalRandom.current().nextInt(state.users)];
+        return state.wallet.withdraw(user, 100, "Payment", "Transfer");
+    }
+}
@@ -1,7 +1,10 @@
 package components;
 
 import models.*;
-import services.LanguageService;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
 import java.util.*;
 
 /**
@@ -10,15 +13,25 @@ import java.util.*;
  */
 public class DashboardComponent {
     private User user;
-    private LanguageService langService;
     private String planningMode; // "annual" or "monthly"
     private String selectedPeriod;
     
+    // Dashboard menu, rendered once: none of its text is translated yet
+    private static final ScreenTemplate MENU = new ScreenTemplate(
+        "\n1. View Detailed Breakdown\n" +
+        "2. Manage Salary\n" +
+        "3. Manage Extra Income\n" +
+        "4. Adjust Financial Allocations\n" +
+        "5. View AI Suggestions\n" +
+        "6. View Financial Goals\n" +
+        "7. Switch Planning Mode\n" +
+        "8. Back to Main Menu\n" +
+        "\nEnter your choice: ");
+    
     public DashboardComponent(User user) {
         this.user = user;
-        this.langService = LanguageService.getInstance();
         this.planningMode = null;
-        this.selectedPeriod = "2024";
+        this.selectedPeriod = String.valueOf(Today.year());
     }
     
     /**
@@ -130,7 +143,7 @@ public class DashboardComponent {
         double expenses = planningMode.equals("annual") ? user.getAnnualExpenses() : user.getMonthlyExpenses();
         double savings = planningMode.equals("annual") ? user.getAnnualSavings() : user.getMonthlySavings();
         double investments = planningMode.equals("annual") ? user.getAnnualInvestments() : user.getMonthlyInvestments();
-        double remaining = planningMode.equals("annual") ? user.getAnnualRemaining() : user.getMonthlyRemaining();
+        double remaining = planningMode.equals("annual") ? user.getAnnualRemaining(selectedPeriod) : user.getMonthlyRemaining();
         
         System.out.println("\nFINANCIAL OVERVIEW");
         System.out.println("Period: " + selectedPeriod);
@@ -152,51 +165,76 @@ public class DashboardComponent {
         if (remaining < 0) {
             System.out.println("⚠️  WARNING: Allocations exceed income by ₹" + String.format("%,.2f", Math.abs(remaining)));
         }
+        
+        displayActuals();
+    }
+    
+    /**
+     * What the user has actually recorded for the period, read from the
+     * user's running period totals
+     */
+    private void displayActuals() {
+        PeriodAggregates totals = user.getAggregates();
+        boolean annual = planningMode.equals("annual");
+        int year = Integer.parseInt(selectedPeriod);
+        YearMonth month = YearMonth.from(Today.date());
+        
+        long expenses = annual ? totals.get(PeriodAggregates.Measure.EXPENSES, year)
+                               : totals.get(PeriodAggregates.Measure.EXPENSES, month);
+        long investments = annual ? totals.get(PeriodAggregates.Measure.INVESTMENTS, year)
+                                  : totals.get(PeriodAggregates.Measure.INVESTMENTS, month);
+        long extraIncome = user.getTotalExtraIncomePaise(annual ? PeriodKey.ofYear(year)
+                                                                 : PeriodKey.ofMonth(month.getYear(), month.getMonthValue()));
+        long remaining = annual ? user.getActualRemainingPaise(year) : user.getActualRemainingPaise(month);
+        
+        OutputSink out = OutputSink.console();
+        out.append("\nRECORDED SO FAR (").append(annual ? selectedPeriod : month.toString()).append(")\n");
+        out.append("Expenses:           ").appendRupees(expenses).newLine();
+        out.append("Investments:        ").appendRupees(investments).newLine();
+        out.append("Extra Income:       ").appendRupees(extraIncome).newLine();
+        out.append("Left after savings: ").appendRupees(remaining).newLine();
+        out.append("─────────────────────────────────────\n");
+        out.flush();
     }
     
     private void displayMenu() {
-        System.out.println("\n1. View Detailed Breakdown");
-        System.out.println("2. Manage Salary");
-        System.out.println("3. Manage Extra Income");
-        System.out.println("4. Adjust Financial Allocations");
-        System.out.println("5. View AI Suggestions");
-        System.out.println("6. View Financial Goals");
-        System.out.println("7. Switch Planning Mode");
-        System.out.println("8. Back to Main Menu");
-        System.out.print("\nEnter your choice: ");
+        MENU.print();
     }
     
     private void viewDetailedBreakdown() {
-        System.out.println("\n========== DETAILED BREAKDOWN ==========\n");
+        OutputSink out = OutputSink.console();
+        out.append("\n========== DETAILED BREAKDOWN ==========\n\n");
         
         if (planningMode.equals("annual")) {
-            System.out.println("Monthly Average Breakdown:");
-            System.out.println("─────────────────────────────────────");
-            
-            // Sample monthly data
-            String[] months = {"Jan", "Feb", "Mar", "Apr", "May", "Jun"};
-            double[] monthlyExpenses = {310000, 304000, 315000, 310000, 322000, 301000};
-            double[] monthlySavings = {103000, 107000, 99000, 103000, 95000, 111000};
-            double[] monthlyInvestments = {69000, 70000, 66000, 69000, 74000, 62000};
+            int year = Integer.parseInt(selectedPeriod);
+            PeriodAggregates totals = user.getAggregates();
+            out.append("Monthly Breakdown (").append(year).append("):\n");
+            out.append("─────────────────────────────────────\n");
             
-            for (int i = 0; i < months.length; i++) {
-                System.out.printf("%s - Exp: ₹%,10.0f | Sav: ₹%,10.0f | Inv: ₹%,10.0f\n",
-                    months[i], monthlyExpenses[i], monthlySavings[i], monthlyInvestments[i]);
+            for (Month month : Month.values()) {
+                YearMonth period = YearMonth.of(year, month);
+                out.append(month.getDisplayName(TextStyle.SHORT, Locale.ENGLISH))
+                    .append(" - Exp: ").appendRupees(totals.get(PeriodAggregates.Measure.EXPENSES, period))
+                    .append(" | Inv: ").appendRupees(totals.get(PeriodAggregates.Measure.INVESTMENTS, period))
+                    .append(" | Extra: ").appendRupees(user.getTotalExtraIncomePaise(PeriodKey.ofMonth(year, month.getValue())))
+                    .newLine();
             }
         } else {
-            System.out.println("Weekly Breakdown:");
-            System.out.println("─────────────────────────────────────");
-            
-            String[] weeks = {"Week 1", "Week 2", "Week 3", "Week 4"};
-            double[] weeklyExpenses = {7800, 7600, 7900, 7700};
-            double[] weeklySavings = {2500, 2700, 2300, 2800};
-            double[] weeklyInvestments = {1800, 1750, 1650, 1800};
+            YearMonth month = YearMonth.from(Today.date());
+            out.append("Weekly Breakdown (").append(month.toString()).append("):\n");
+            out.append("─────────────────────────────────────\n");
             
-            for (int i = 0; i < weeks.length; i++) {
-                System.out.printf("%s - Exp: ₹%,7.0f | Sav: ₹%,7.0f | Inv: ₹%,7.0f\n",
-                    weeks[i], weeklyExpenses[i], weeklySavings[i], weeklyInvestments[i]);
+            // Weeks are days 1-7, 8-14, 15-21, 22-28 and whatever is left
+            for (int week = 0; week * 7 < month.lengthOfMonth(); week++) {
+                LocalDate from = month.atDay(week * 7 + 1);
+                LocalDate to = month.atDay(Math.min(week * 7 + 7, month.lengthOfMonth()));
+                out.append("Week ").append(week + 1)
+                    .append(" - Exp: ").appendRupees(user.getExpensesBetweenPaise(from, to))
+                    .append(" | Wallet net: ").appendRupees(user.getNetTransactionsBetweenPaise(from, to))
+                    .newLine();
             }
         }
+        out.flush();
     }
     
     private void manageSalary(Scanner scanner) {
@@ -0,0 +1,224 @@
+package components;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.time.LocalDate;
+
+/**
+ * OutputSink - Buffered console output for long reports
+ *
+ * Text collects in one reusable buffer and reaches the stream in large
+ * writes (when the buffer fills, and on flush), instead of one flush per
+ * println. Numbers, ₹ amounts (Indian digit grouping, e.g. ₹12,34,567.89)
+ * and dates are written straight into the buffer without allocating.
+ *
+ * Not thread-safe: use console() to get the calling thread's sink, and call
+ * flush() before reading input or printing through System.out again.
+ */
+public final class OutputSink {
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private static final String[] MONTHS = {
+        "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"
+    };
+
+    private static final ThreadLocal<OutputSink> CONSOLE =
+        ThreadLocal.withInitial(() -> new OutputSink(System.out, consoleCharset(), DEFAULT_CAPACITY));
+
+    private final PrintStream out;
+    private final CharsetEncoder encoder;
+    private final char[] text;
+    private final CharBuffer chars;
+    private final byte[] encoded;
+    private final ByteBuffer bytes;
+    private final char[] digits = new char[32];
+
+    public OutputSink(PrintStream out, Charset charset, int capacity) {
+        this.out = out;
+        this.encoder = charset.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.text = new char[capacity];
+        this.chars = CharBuffer.wrap(text);
+        this.encoded = new byte[(int) Math.ceil(capacity * (double) encoder.maxBytesPerChar())];
+        this.bytes = ByteBuffer.wrap(encoded);
+    }
+
+    /**
+     * The calling thread's sink on System.out
+     */
+    public static OutputSink console() {
+        return CONSOLE.get();
+    }
+
+    // The charset System.out encodes with
+    private static Charset consoleCharset() {
+        String name = System.getProperty("sun.stdout.encoding");
+        try {
+            return name != null ? Charset.forName(name) : Charset.defaultCharset();
+        } catch (IllegalArgumentException e) {
+            return Charset.defaultCharset();
+        }
+    }
+
+    public OutputSink append(String s) {
+        int start = 0;
+        int length = s.length();
+        while (start < length) {
+            if (!chars.hasRemaining()) {
+                drain(false);
+            }
+            int end = Math.min(length, start + chars.remaining());
+            int position = chars.position();
+            s.getChars(start, end, text, position);
+            chars.position(position + end - start);
+            start = end;
+        }
+        return this;
+    }
+
+    public OutputSink append(char c) {
+        if (!chars.hasRemaining()) {
+            drain(false);
+        }
+        chars.put(c);
+        return this;
+    }
+
+    public OutputSink newLine() {
+        return append('\n');
+    }
+
+    public OutputSink append(long value) {
+        if (value < 0) {
+            append('-');
+        }
+        return appendDigits(value, false);
+    }
+
+    public OutputSink append(int value) {
+        return append((long) value);
+    }
+
+    /**
+     * An amount as "₹1,23,456.78" ("-₹…" when negative)
+     */
+    public OutputSink appendRupees(long paise) {
+        if (paise < 0) {
+            append('-');
+        }
+        append('₹');
+        return appendAmount(Math.abs(paise / 100), Math.abs(paise % 100));
+    }
+
+    /**
+     * An amount without the symbol, as "1,23,456.78"
+     */
+    public OutputSink appendAmount(long paise) {
+        if (paise < 0) {
+            append('-');
+        }
+        return appendAmount(Math.abs(paise / 100), Math.abs(paise % 100));
+    }
+
+    private OutputSink appendAmount(long rupees, long paise) {
+        appendDigits(rupees, true);
+        append('.');
+        append((char) ('0' + paise / 10));
+        return append((char) ('0' + paise % 10));
+    }
+
+    /**
+     * A date as "MMM dd", e.g. "Mar 07"
+     */
+    public OutputSink appendDate(LocalDate date) {
+        append(MONTHS[date.getMonthValue() - 1]);
+        append(' ');
+        int day = date.getDayOfMonth();
+        append((char) ('0' + day / 10));
+        return append((char) ('0' + day % 10));
+    }
+
+    /**
+     * An amount without the symbol, as "1,23,456.78", for text that is not
+     * written through a sink (e.g. a ScreenTemplate hole)
+     */
+    public static String formatAmount(long paise) {
+        char[] out = new char[32];
+        long fraction = Math.abs(paise % 100);
+        out[31] = (char) ('0' + fraction % 10);
+        out[30] = (char) ('0' + fraction / 10);
+        out[29] = '.';
+        int position = writeDigits(paise / 100, true, out, 29);
+        if (paise < 0) {
+            out[--position] = '-';
+        }
+        return new String(out, position, out.length - position);
+    }
+
+    private OutputSink appendDigits(long value, boolean indianGrouping) {
+        int position = writeDigits(value, indianGrouping, digits, digits.length);
+
+        if (chars.remaining() < digits.length - position) {
+            drain(false);
+        }
+        chars.put(digits, position, digits.length - position);
+        return this;
+    }
+
+    // Digits of |value| ending just before end, optionally grouped the Indian
+    // way (last three, then pairs); returns where they start
+    private static int writeDigits(long value, boolean indianGrouping, char[] into, int end) {
+        int position = end;
+        int count = 0;
+        do {
+            if (indianGrouping && count >= 3 && (count - 3) % 2 == 0) {
+                into[--position] = ',';
+            }
+            into[--position] = (char) ('0' + Math.abs(value % 10));
+            value /= 10;
+            count++;
+        } while (value != 0);
+        return position;
+    }
+
+    /**
+     * Write everything buffered so far to the stream and flush it
+     */
+    public void flush() {
+        drain(true);
+        out.flush();
+    }
+
+    // Encode the buffered text and hand it to the stream in one write per buffer-full
+    private void drain(boolean endOfInput) {
+        chars.flip();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (endOfInput && !result.isOverflow()) {
+                encoder.flush(bytes);
+            }
+            writeBytes();
+            if (!result.isOverflow()) {
+                break;
+            }
+        }
+        // Anything left is half of a surrogate pair; keep it for the next drain
+        chars.compact();
+        if (endOfInput) {
+            encoder.reset();
+        }
+    }
+
+    private void writeBytes() {
+        if (bytes.position() > 0) {
+            out.write(encoded, 0, bytes.position());
+            bytes.clear();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package components;
+
+import services.LocaleContext;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * ScreenTemplate - A console screen whose static text is rendered once
+ *
+ * The text is split at "{}" holes when the template is built; printing
+ * fills the holes in order and writes the whole screen with one print
+ * call, so a menu costs one flush instead of one per line.
+ */
+public final class ScreenTemplate {
+    private static final String HOLE = "{}";
+
+    private final String[] parts;
+    private final int length;
+
+    public ScreenTemplate(String text) {
+        int holes = 0;
+        for (int i = text.indexOf(HOLE); i >= 0; i = text.indexOf(HOLE, i + HOLE.length())) {
+            holes++;
+        }
+        this.parts = new String[holes + 1];
+        int start = 0;
+        for (int part = 0; part < holes; part++) {
+            int end = text.indexOf(HOLE, start);
+            parts[part] = text.substring(start, end);
+            start = end + HOLE.length();
+        }
+        parts[holes] = text.substring(start);
+        this.length = text.length();
+    }
+
+    /**
+     * Print the screen with the given values in its holes (missing values print as nothing)
+     */
+    public void print(Object... values) {
+        if (parts.length == 1) {
+            System.out.print(parts[0]);
+            return;
+        }
+        StringBuilder screen = new StringBuilder(length + 16 * values.length);
+        for (int i = 0; i < parts.length; i++) {
+            screen.append(parts[i]);
+            if (i < values.length && i < parts.length - 1) {
+                screen.append(values[i]);
+            }
+        }
+        System.out.print(screen);
+    }
+
+    /**
+     * One screen's templates, built on first use for each locale
+     */
+    public static final class Cache {
+        private final Function<LocaleContext, String> builder;
+        private final Map<LocaleContext, ScreenTemplate> byLocale = new ConcurrentHashMap<>();
+
+        public Cache(Function<LocaleContext, String> builder) {
+            this.builder = builder;
+        }
+
+        public ScreenTemplate get(LocaleContext locale) {
+            return byLocale.computeIfAbsent(locale, l -> new ScreenTemplate(builder.apply(l)));
+        }
+    }
+}
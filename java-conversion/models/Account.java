@@ -0,0 +1,51 @@
+package models;
+
+/**
+ * Account Model - A linked bank account
+ */
+public class Account {
+    private long id;
+    private String name;
+    private String accountNumber;
+    private String bankName;
+    private long balancePaise;
+    private String type;
+    
+    public Account(String name, String accountNumber, String bankName, double balance, String type) {
+        this(IdGenerator.next(), name, accountNumber, bankName, balance, type);
+    }
+    
+    public Account(long id, String name, String accountNumber, String bankName, double balance, String type) {
+        this(id, Money.ofRupees(balance), name, accountNumber, bankName, type);
+    }
+    
+    private Account(long id, long balancePaise, String name, String accountNumber, String bankName, String type) {
+        this.id = id;
+        this.name = name;
+        this.accountNumber = accountNumber;
+        this.bankName = bankName;
+        this.balancePaise = balancePaise;
+        this.type = type;
+    }
+    
+    /**
+     * An account whose balance is already in paise (e.g. restored from disk)
+     */
+    public static Account ofPaise(long id, String name, String accountNumber, String bankName, long balancePaise, String type) {
+        return new Account(id, balancePaise, name, accountNumber, bankName, type);
+    }
+    
+    public long getId() { return id; }
+    public String getName() { return name; }
+    public String getAccountNumber() { return accountNumber; }
+    public String getBankName() { return bankName; }
+    public double getBalance() { return Money.toRupees(balancePaise); }
+    public long getBalancePaise() { return balancePaise; }
+    public String getType() { return type; }
+    
+    @Override
+    public String toString() {
+        return String.format("%s (%s)\n  Bank: %s | Account: %s | Balance: ₹%.2f",
+            name, type, bankName, accountNumber, getBalance());
+    }
+}
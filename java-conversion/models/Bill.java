@@ -0,0 +1,78 @@
+package models;
+
+import java.time.LocalDate;
+
+/**
+ * Bill Model - A recurring bill due on a day of the month
+ */
+public class Bill {
+    public static final int MIN_DUE_DAY = 1;
+    public static final int MAX_DUE_DAY = 31;
+    
+    private long id;
+    private String name;
+    private long amountPaise;
+    private int dueDay;
+    
+    public Bill(String name, double amount, int dueDay) {
+        this(IdGenerator.next(), name, amount, dueDay);
+    }
+    
+    public Bill(long id, String name, double amount, int dueDay) {
+        this(id, Money.ofRupees(amount), name, dueDay);
+    }
+    
+    private Bill(long id, long amountPaise, String name, int dueDay) {
+        if (dueDay < MIN_DUE_DAY || dueDay > MAX_DUE_DAY) {
+            throw new IllegalArgumentException("Due day must be between " + MIN_DUE_DAY + " and " + MAX_DUE_DAY + ": " + dueDay);
+        }
+        this.id = id;
+        this.name = name;
+        this.amountPaise = amountPaise;
+        this.dueDay = dueDay;
+    }
+    
+    /**
+     * A bill whose amount is already in paise (e.g. restored from disk)
+     */
+    public static Bill ofPaise(long id, String name, long amountPaise, int dueDay) {
+        return new Bill(id, amountPaise, name, dueDay);
+    }
+    
+    /**
+     * Bring a stored due day into range; data saved before due days were
+     * validated may hold any number
+     */
+    public static int clampDueDay(int dueDay) {
+        return Math.max(MIN_DUE_DAY, Math.min(dueDay, MAX_DUE_DAY));
+    }
+    
+    public long getId() { return id; }
+    public String getName() { return name; }
+    public double getAmount() { return Money.toRupees(amountPaise); }
+    public long getAmountPaise() { return amountPaise; }
+    public int getDueDay() { return dueDay; }
+    
+    public int getDaysUntilDue() {
+        LocalDate today = Today.date();
+        return (int) (getNextDueDate(today).toEpochDay() - today.toEpochDay());
+    }
+    
+    /**
+     * The first due date on or after the given day; a due day past the end
+     * of a month falls on its last day
+     */
+    public LocalDate getNextDueDate(LocalDate from) {
+        LocalDate due = from.withDayOfMonth(Math.min(dueDay, from.lengthOfMonth()));
+        if (due.isBefore(from)) {
+            LocalDate nextMonth = from.plusMonths(1);
+            due = nextMonth.withDayOfMonth(Math.min(dueDay, nextMonth.lengthOfMonth()));
+        }
+        return due;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s - ₹%.2f (Due: Day %d)", name, getAmount(), dueDay);
+    }
+}
@@ -0,0 +1,41 @@
+package models;
+
+/**
+ * Budget Model - Spending limit for a category
+ */
+public class Budget {
+    private long id;
+    private String category;
+    private long limitPaise;
+    
+    public Budget(String category, double limit) {
+        this(IdGenerator.next(), category, limit);
+    }
+    
+    public Budget(long id, String category, double limit) {
+        this(id, Money.ofRupees(limit), category);
+    }
+    
+    private Budget(long id, long limitPaise, String category) {
+        this.id = id;
+        this.category = category;
+        this.limitPaise = limitPaise;
+    }
+    
+    /**
+     * A budget whose limit is already in paise (e.g. restored from disk)
+     */
+    public static Budget ofPaise(long id, String category, long limitPaise) {
+        return new Budget(id, limitPaise, category);
+    }
+    
+    public long getId() { return id; }
+    public String getCategory() { return category; }
+    public double getLimit() { return Money.toRupees(limitPaise); }
+    public long getLimitPaise() { return limitPaise; }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: ₹%.2f", category, getLimit());
+    }
+}
@@ -0,0 +1,216 @@
+package models;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * DateIndex - Ledger positions and amounts partitioned by date
+ *
+ * Entries are filed in sparse month buckets: only months that hold entries
+ * get one, kept sorted by month, so a stray far-off date costs one more
+ * bucket rather than a slot for every day in between. Each bucket has one
+ * slot per day of the month holding the positions of that day's entries
+ * in ledger order. Amount and count sums over whole buckets are kept in
+ * Fenwick trees, so any date-range total is O(log months) plus the days
+ * of the two partial months at its ends; a range scan visits the days in
+ * the range and then only the k matching entries.
+ *
+ * Per-month and per-year totals live in PeriodAggregates, not here.
+ */
+class DateIndex {
+    private static final int DAYS = 31;
+
+    // months[i] is the month key of buckets[i], ascending
+    private long[] months = new long[0];
+    private Bucket[] buckets = new Bucket[0];
+    private int bucketCount;
+    private long[] sumTree = new long[1];
+    private int[] countTree = new int[1];
+
+    private int size;
+
+    private static final class Bucket {
+        final int[][] positions = new int[DAYS][];
+        final int[] counts = new int[DAYS];
+        final long[] sums = new long[DAYS];
+        long sum;
+        int count;
+    }
+
+    /**
+     * Record an entry: its date, its position in the ledger and its amount in paise
+     */
+    void add(LocalDate date, int position, long amount) {
+        long month = monthKey(date);
+        int index = Arrays.binarySearch(months, 0, bucketCount, month);
+        if (index < 0) {
+            index = insertBucket(-index - 1, month);
+        }
+        Bucket bucket = buckets[index];
+        int day = date.getDayOfMonth() - 1;
+
+        int[] dayPositions = bucket.positions[day];
+        int count = bucket.counts[day];
+        if (dayPositions == null) {
+            dayPositions = bucket.positions[day] = new int[4];
+        } else if (count == dayPositions.length) {
+            dayPositions = bucket.positions[day] = Arrays.copyOf(dayPositions, count * 2);
+        }
+        dayPositions[count] = position;
+        bucket.counts[day] = count + 1;
+        bucket.sums[day] += amount;
+        bucket.sum += amount;
+        bucket.count++;
+        for (int i = index + 1; i <= bucketCount; i += i & -i) {
+            sumTree[i] += amount;
+            countTree[i]++;
+        }
+        size++;
+    }
+
+    int size() { return size; }
+
+    /**
+     * Total amount of entries dated from..to (both inclusive)
+     */
+    long sum(LocalDate from, LocalDate to) {
+        int[] range = bucketRange(from, to);
+        if (range == null) {
+            return 0;
+        }
+        int first = range[0];
+        int last = range[1];
+        long total = daySum(first, from, to);
+        if (last > first) {
+            total += prefixSum(last) - prefixSum(first + 1) + daySum(last, from, to);
+        }
+        return total;
+    }
+
+    /**
+     * Number of entries dated from..to (both inclusive)
+     */
+    int count(LocalDate from, LocalDate to) {
+        int[] range = bucketRange(from, to);
+        if (range == null) {
+            return 0;
+        }
+        int first = range[0];
+        int last = range[1];
+        int total = dayCount(first, from, to);
+        if (last > first) {
+            total += prefixCount(last) - prefixCount(first + 1) + dayCount(last, from, to);
+        }
+        return total;
+    }
+
+    /**
+     * Ledger positions of entries dated from..to (both inclusive), in date
+     * order and in ledger order within a day
+     */
+    void forEach(LocalDate from, LocalDate to, IntConsumer action) {
+        int[] range = bucketRange(from, to);
+        if (range == null) {
+            return;
+        }
+        for (int index = range[0]; index <= range[1]; index++) {
+            Bucket bucket = buckets[index];
+            for (int day = firstDay(index, from), last = lastDay(index, to); day <= last; day++) {
+                int count = bucket.counts[day];
+                int[] dayPositions = bucket.positions[day];
+                for (int i = 0; i < count; i++) {
+                    action.accept(dayPositions[i]);
+                }
+            }
+        }
+    }
+
+    private static long monthKey(LocalDate date) {
+        return date.getYear() * 12L + date.getMonthValue() - 1;
+    }
+
+    // Indexes of the first and last buckets within from..to, or null if none are
+    private int[] bucketRange(LocalDate from, LocalDate to) {
+        if (size == 0 || from.isAfter(to)) {
+            return null;
+        }
+        int first = Arrays.binarySearch(months, 0, bucketCount, monthKey(from));
+        first = first < 0 ? -first - 1 : first;
+        int last = Arrays.binarySearch(months, 0, bucketCount, monthKey(to));
+        last = last < 0 ? -last - 2 : last;
+        return first > last ? null : new int[] { first, last };
+    }
+
+    // Days of bucket index that fall within from..to (only the end months are cut short)
+    private int firstDay(int index, LocalDate from) {
+        return months[index] == monthKey(from) ? from.getDayOfMonth() - 1 : 0;
+    }
+
+    private int lastDay(int index, LocalDate to) {
+        return months[index] == monthKey(to) ? to.getDayOfMonth() - 1 : DAYS - 1;
+    }
+
+    private long daySum(int index, LocalDate from, LocalDate to) {
+        long[] sums = buckets[index].sums;
+        long total = 0;
+        for (int day = firstDay(index, from), last = lastDay(index, to); day <= last; day++) {
+            total += sums[day];
+        }
+        return total;
+    }
+
+    private int dayCount(int index, LocalDate from, LocalDate to) {
+        int[] counts = buckets[index].counts;
+        int total = 0;
+        for (int day = firstDay(index, from), last = lastDay(index, to); day <= last; day++) {
+            total += counts[day];
+        }
+        return total;
+    }
+
+    // Sum of the first n buckets
+    private long prefixSum(int n) {
+        long total = 0;
+        for (int i = n; i > 0; i -= i & -i) {
+            total += sumTree[i];
+        }
+        return total;
+    }
+
+    private int prefixCount(int n) {
+        int total = 0;
+        for (int i = n; i > 0; i -= i & -i) {
+            total += countTree[i];
+        }
+        return total;
+    }
+
+    // Open an empty bucket for month at index; returns index
+    private int insertBucket(int index, long month) {
+        if (bucketCount == months.length) {
+            int length = Math.max(16, bucketCount * 2);
+            months = Arrays.copyOf(months, length);
+            buckets = Arrays.copyOf(buckets, length);
+        }
+        System.arraycopy(months, index, months, index + 1, bucketCount - index);
+        System.arraycopy(buckets, index, buckets, index + 1, bucketCount - index);
+        months[index] = month;
+        buckets[index] = new Bucket();
+        bucketCount++;
+
+        // Bucket positions after index moved up one: rebuild both Fenwick trees in O(months)
+        sumTree = new long[months.length + 1];
+        countTree = new int[months.length + 1];
+        for (int i = 1; i <= bucketCount; i++) {
+            sumTree[i] += buckets[i - 1].sum;
+            countTree[i] += buckets[i - 1].count;
+            int parent = i + (i & -i);
+            if (parent <= bucketCount) {
+                sumTree[parent] += sumTree[i];
+                countTree[parent] += countTree[i];
+            }
+        }
+        return index;
+    }
+}
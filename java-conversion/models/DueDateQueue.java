@@ -0,0 +1,178 @@
+package models;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * DueDateQueue - Recurring items in a min-heap keyed by their next due day
+ *
+ * The heap key is the due epoch day with an insertion sequence number in
+ * the low bits, so items due the same day stay in the order they were
+ * added. The earliest item is always at the top: rolling items past their
+ * due date on to their next cycle costs O(log n) each, and listing the k
+ * items due within a window visits only those k and their children.
+ *
+ * Not thread-safe.
+ */
+public final class DueDateQueue<T> {
+    /**
+     * When an item is next due, on or after a given day
+     */
+    public interface Cycle<T> {
+        LocalDate nextDue(T item, LocalDate onOrAfter);
+    }
+
+    private final Cycle<T> cycle;
+    private long[] keys = new long[16];
+    private Object[] items = new Object[16];
+    private int size;
+    private int sequence;
+
+    public DueDateQueue(Cycle<T> cycle) {
+        this.cycle = cycle;
+    }
+
+    public int size() { return size; }
+
+    /**
+     * Schedule an item for its first due date on or after today
+     */
+    public void add(T item, LocalDate today) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            items = Arrays.copyOf(items, size * 2);
+        }
+        keys[size] = key(cycle.nextDue(item, today).toEpochDay(), sequence++ & 0x7fffffff);
+        items[size] = item;
+        siftUp(size++);
+    }
+
+    /**
+     * The earliest due date in the queue, or null if it is empty
+     */
+    public LocalDate peekDue() {
+        return size == 0 ? null : LocalDate.ofEpochDay(day(keys[0]));
+    }
+
+    /**
+     * Roll every item whose due date has passed on to its next cycle
+     */
+    public void advanceTo(LocalDate today) {
+        long todayDay = today.toEpochDay();
+        while (size > 0 && day(keys[0]) < todayDay) {
+            reschedule(today);
+        }
+    }
+
+    /**
+     * Items due on or before lastDay, soonest first. Call advanceTo first for
+     * a window starting today.
+     */
+    public List<T> dueBy(LocalDate lastDay) {
+        long last = lastDay.toEpochDay();
+        int[] found = new int[Math.min(size, 16)];
+        int count = 0;
+        // Walk the heap from the top; a node due too late has no earlier children
+        int[] stack = new int[32];
+        int depth = 0;
+        if (size > 0) {
+            stack[depth++] = 0;
+        }
+        while (depth > 0) {
+            int node = stack[--depth];
+            if (day(keys[node]) > last) {
+                continue;
+            }
+            if (count == found.length) {
+                found = Arrays.copyOf(found, count * 2);
+            }
+            found[count++] = node;
+            for (int child = 2 * node + 1; child <= 2 * node + 2 && child < size; child++) {
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                }
+                stack[depth++] = child;
+            }
+        }
+
+        // Keys are unique, so each item's rank among the sorted keys is its place
+        long[] sorted = new long[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = keys[found[i]];
+        }
+        Arrays.sort(sorted);
+        Object[] ordered = new Object[count];
+        for (int i = 0; i < count; i++) {
+            ordered[Arrays.binarySearch(sorted, keys[found[i]])] = items[found[i]];
+        }
+        List<T> result = new ArrayList<>(count);
+        for (Object item : ordered) {
+            @SuppressWarnings("unchecked")
+            T t = (T) item;
+            result.add(t);
+        }
+        return result;
+    }
+
+    // Move the top item to its next due date on or after the given day
+    private void reschedule(LocalDate onOrAfter) {
+        T item = item(0);
+        keys[0] = key(cycle.nextDue(item, onOrAfter).toEpochDay(), sequenceOf(keys[0]));
+        siftDown(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T item(int node) {
+        return (T) items[node];
+    }
+
+    private static long key(long epochDay, int sequence) {
+        return (epochDay << 32) | sequence;
+    }
+
+    private static long day(long key) {
+        return key >> 32;
+    }
+
+    private static int sequenceOf(long key) {
+        return (int) key;
+    }
+
+    private void siftUp(int node) {
+        long key = keys[node];
+        Object item = items[node];
+        while (node > 0) {
+            int parent = (node - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[node] = keys[parent];
+            items[node] = items[parent];
+            node = parent;
+        }
+        keys[node] = key;
+        items[node] = item;
+    }
+
+    private void siftDown(int node) {
+        long key = keys[node];
+        Object item = items[node];
+        int half = size >>> 1;
+        while (node < half) {
+            int child = 2 * node + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            keys[node] = keys[child];
+            items[node] = items[child];
+            node = child;
+        }
+        keys[node] = key;
+        items[node] = item;
+    }
+}
@@ -0,0 +1,56 @@
+package models;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Expense Model - A single spending entry in a category
+ */
+public class Expense {
+    private long id;
+    private String description;
+    private long amountPaise;
+    private String category;
+    private LocalDate date;
+    
+    public Expense(String description, double amount, String category) {
+        this(description, amount, category, Today.date());
+    }
+    
+    public Expense(String description, double amount, String category, LocalDate date) {
+        this(IdGenerator.next(), description, amount, category, date);
+    }
+    
+    public Expense(long id, String description, double amount, String category, LocalDate date) {
+        this(id, Money.ofRupees(amount), description, category, date);
+    }
+    
+    private Expense(long id, long amountPaise, String description, String category, LocalDate date) {
+        this.id = id;
+        this.description = description;
+        this.amountPaise = amountPaise;
+        this.category = category;
+        this.date = date;
+    }
+    
+    /**
+     * An expense whose amount is already in paise (e.g. restored from disk)
+     */
+    public static Expense ofPaise(long id, String description, long amountPaise, String category, LocalDate date) {
+        return new Expense(id, amountPaise, description, category, date);
+    }
+    
+    public long getId() { return id; }
+    public String getDescription() { return description; }
+    public double getAmount() { return Money.toRupees(amountPaise); }
+    public long getAmountPaise() { return amountPaise; }
+    public String getCategory() { return category; }
+    public LocalDate getDate() { return date; }
+    
+    @Override
+    public String toString() {
+        return String.format("[%s] %s - ₹%.2f (%s)", 
+            date.format(DateTimeFormatter.ofPattern("MMM dd")), 
+            description, getAmount(), category);
+    }
+}
@@ -7,38 +7,53 @@ import java.time.format.DateTimeFormatter;
  * ExtraIncome Model - Represents additional income like bonuses, gifts, etc.
  */
 public class ExtraIncome {
-    private String id;
-    private double amount;
+    private long id;
+    private long amountPaise;
     private String description;
     private LocalDate date;
     private String period; // Year or month period (e.g., "2024" or "January 2024")
+    private int periodKey; // period as a PeriodKey, or PeriodKey.NONE if it is not one
     
     public ExtraIncome(String description, double amount, String period) {
-        this.id = String.valueOf(System.currentTimeMillis());
-        this.description = description;
-        this.amount = amount;
-        this.period = period;
-        this.date = LocalDate.now();
+        this(IdGenerator.next(), description, amount, period, Today.date());
     }
     
     public ExtraIncome(String description, double amount, String period, LocalDate date) {
-        this.id = String.valueOf(System.currentTimeMillis());
+        this(IdGenerator.next(), description, amount, period, date);
+    }
+    
+    public ExtraIncome(long id, String description, double amount, String period, LocalDate date) {
+        this(id, Money.ofRupees(amount), description, period, date);
+    }
+    
+    private ExtraIncome(long id, long amountPaise, String description, String period, LocalDate date) {
+        this.id = id;
         this.description = description;
-        this.amount = amount;
+        this.amountPaise = amountPaise;
         this.period = period;
         this.date = date;
+        this.periodKey = PeriodKey.parse(period);
+    }
+    
+    /**
+     * An income whose amount is already in paise (e.g. restored from disk)
+     */
+    public static ExtraIncome ofPaise(long id, String description, long amountPaise, String period, LocalDate date) {
+        return new ExtraIncome(id, amountPaise, description, period, date);
     }
     
-    public String getId() { return id; }
-    public double getAmount() { return amount; }
+    public long getId() { return id; }
+    public double getAmount() { return Money.toRupees(amountPaise); }
+    public long getAmountPaise() { return amountPaise; }
     public String getDescription() { return description; }
     public LocalDate getDate() { return date; }
     public String getPeriod() { return period; }
+    public int getPeriodKey() { return periodKey; }
     
     @Override
     public String toString() {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
         return String.format("%s - ₹%.2f (%s) [%s]", 
-            description, amount, date.format(formatter), period);
+            description, getAmount(), date.format(formatter), period);
     }
 }
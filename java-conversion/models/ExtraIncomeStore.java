@@ -0,0 +1,150 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ExtraIncomeStore - Extra incomes partitioned by period key
+ *
+ * An open-addressing table from PeriodKey to a partition holding that
+ * period's incomes and running total. A month's income also adds to its
+ * year's partition, so a year's total is one lookup and a year's incomes are
+ * its own partition plus at most twelve month partitions - nothing is
+ * rescanned however many incomes are on record.
+ *
+ * Incomes whose period is not a PeriodKey (free text kept from older data,
+ * e.g. "Q1 2024") are filed under that exact text instead, so they can
+ * still be looked up by it and never land in an unrelated period.
+ */
+class ExtraIncomeStore {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final class Partition {
+        final int key;
+        ExtraIncome[] incomes = new ExtraIncome[4];
+        int count;
+        long ownTotal;     // incomes filed under exactly this period
+        long rolledTotal;  // plus, for a year, its months' incomes
+        int monthCount;    // for a year, incomes filed under its months
+
+        Partition(int key) {
+            this.key = key;
+        }
+    }
+
+    private Partition[] table = new Partition[INITIAL_CAPACITY];
+    private int size;
+    private final Map<String, Partition> byText = new HashMap<>();
+
+    /**
+     * File an income under its period key, or under its period text if it has no key
+     */
+    void add(ExtraIncome income) {
+        int key = income.getPeriodKey();
+        long amount = income.getAmountPaise();
+        Partition partition = key != PeriodKey.NONE ? partition(key, true)
+            : byText.computeIfAbsent(income.getPeriod(), text -> new Partition(PeriodKey.NONE));
+        if (partition.count == partition.incomes.length) {
+            partition.incomes = Arrays.copyOf(partition.incomes, partition.count * 2);
+        }
+        partition.incomes[partition.count++] = income;
+        partition.ownTotal += amount;
+        partition.rolledTotal += amount;
+        if (key != PeriodKey.NONE && !PeriodKey.isYear(key)) {
+            Partition year = partition(PeriodKey.yearOf(key), true);
+            year.rolledTotal += amount;
+            year.monthCount++;
+        }
+    }
+
+    /**
+     * Total for a period; a year includes its months
+     */
+    long total(int key) {
+        Partition partition = partition(key, false);
+        return partition == null ? 0 : partition.rolledTotal;
+    }
+
+    /**
+     * Total for period text that is not a PeriodKey
+     */
+    long total(String text) {
+        Partition partition = byText.get(text);
+        return partition == null ? 0 : partition.ownTotal;
+    }
+
+    /**
+     * Incomes filed under period text that is not a PeriodKey, in the order they were filed
+     */
+    List<ExtraIncome> incomes(String text) {
+        Partition partition = byText.get(text);
+        return partition == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(partition.incomes).subList(0, partition.count));
+    }
+
+    /**
+     * Incomes of a period in the order they were filed; for a year, the
+     * whole-year incomes come first, then each month's in calendar order
+     */
+    List<ExtraIncome> incomes(int key) {
+        Partition partition = partition(key, false);
+        if (partition == null) {
+            return new ArrayList<>();
+        }
+        List<ExtraIncome> result = new ArrayList<>(partition.count + partition.monthCount);
+        result.addAll(Arrays.asList(partition.incomes).subList(0, partition.count));
+        if (PeriodKey.isYear(key) && partition.monthCount > 0) {
+            int year = PeriodKey.year(key);
+            for (int month = 1; month <= 12; month++) {
+                Partition monthPartition = partition(PeriodKey.ofMonth(year, month), false);
+                if (monthPartition != null) {
+                    result.addAll(Arrays.asList(monthPartition.incomes).subList(0, monthPartition.count));
+                }
+            }
+        }
+        return result;
+    }
+
+    private Partition partition(int key, boolean create) {
+        int mask = table.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            Partition partition = table[slot];
+            if (partition == null) {
+                if (!create) {
+                    return null;
+                }
+                partition = table[slot] = new Partition(key);
+                if (++size * 4 > table.length * 3) {
+                    rehash();
+                }
+                return partition;
+            }
+            if (partition.key == key) {
+                return partition;
+            }
+        }
+    }
+
+    private void rehash() {
+        Partition[] old = table;
+        table = new Partition[old.length * 2];
+        int mask = table.length - 1;
+        for (Partition partition : old) {
+            if (partition != null) {
+                int slot = hash(partition.key) & mask;
+                while (table[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = partition;
+            }
+        }
+    }
+
+    // Keys of nearby periods differ only in low bits; spread them over the table
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,33 @@
+package models;
+
+import java.util.*;
+
+/**
+ * HeapTransactionStore - Default transaction store backed by an ArrayList
+ */
+public class HeapTransactionStore implements TransactionStore {
+    private final List<Transaction> transactions = new ArrayList<>();
+    private long totalIncomePaise;
+    
+    @Override
+    public void add(Transaction transaction) {
+        transactions.add(transaction);
+        if (Money.isPositive(transaction.getAmountPaise())) {
+            totalIncomePaise = Money.add(totalIncomePaise, transaction.getAmountPaise());
+        }
+    }
+    
+    @Override
+    public int size() { return transactions.size(); }
+    
+    @Override
+    public Transaction get(int index) { return transactions.get(index); }
+    
+    @Override
+    public long getTotalIncomePaise() { return totalIncomePaise; }
+    
+    @Override
+    public Iterator<Transaction> iterator() {
+        return Collections.unmodifiableList(transactions).iterator();
+    }
+}
@@ -0,0 +1,145 @@
+package models;
+
+import java.lang.ref.Cleaner;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * IdGenerator - Unique, time-ordered 64-bit ids for every record
+ *
+ * Snowflake layout: 41 bits of milliseconds since 2024-01-01 UTC, a 10-bit
+ * slot and a 12-bit sequence. A thread takes a free slot the first time it
+ * creates a record and counts its own sequence in it, so generating an id
+ * touches no shared state at all: no lock, no CAS, no SecureRandom. Ids
+ * from one slot strictly increase and ids from different slots sort by
+ * creation time to the millisecond.
+ *
+ * A slot goes back to the free list once its thread has died and been
+ * collected, carrying the last id it produced, so its next owner continues
+ * after it and ids never repeat. If every slot is taken, further threads
+ * share the last slot and claim its ids with a CAS.
+ *
+ * A slot producing more than 4096 ids in a millisecond, or seeing the
+ * clock step back, carries on in the following millisecond instead of
+ * waiting.
+ */
+public final class IdGenerator {
+    // 2024-01-01T00:00:00Z
+    private static final long EPOCH_MILLIS = 1704067200000L;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int SLOT_BITS = 10;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final long MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = SLOT_BITS + SEQUENCE_BITS;
+
+    // Ids derived for records saved without one (see fromPosition/fromLegacy)
+    private static final long DERIVED = Long.MIN_VALUE;
+    private static final long DERIVED_FROM_TEXT = 1L << 62;
+    private static final long MAX_POSITION = DERIVED_FROM_TEXT - 1;
+
+    private static final class Slot {
+        final long bits;
+        // The last id handed out; written only by the owning thread (or by
+        // CAS for the shared slot) and read with acquire by the next owner
+        final AtomicLong last = new AtomicLong();
+
+        Slot(int slot) {
+            this.bits = (long) slot << SEQUENCE_BITS;
+            this.last.set(bits);
+        }
+    }
+
+    private static final Slot SHARED = new Slot(SLOTS - 1);
+    private static final Queue<Slot> FREE = new ConcurrentLinkedQueue<>();
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    static {
+        for (int slot = 0; slot < SLOTS - 1; slot++) {
+            FREE.add(new Slot(slot));
+        }
+    }
+
+    private static final ThreadLocal<Slot> SLOT = ThreadLocal.withInitial(IdGenerator::claimSlot);
+
+    private IdGenerator() {}
+
+    public static long next() {
+        Slot slot = SLOT.get();
+        long now = System.currentTimeMillis() - EPOCH_MILLIS;
+        if (slot == SHARED) {
+            while (true) {
+                long last = slot.last.get();
+                long id = after(slot, last, now);
+                if (slot.last.compareAndSet(last, id)) {
+                    return id;
+                }
+            }
+        }
+        long id = after(slot, slot.last.getPlain(), now);
+        slot.last.setRelease(id);
+        return id;
+    }
+
+    // The slot's next id after last, at millisecond now if that is later
+    private static long after(Slot slot, long last, long now) {
+        long lastMillis = last >>> TIMESTAMP_SHIFT;
+        if (now > lastMillis) {
+            return (now << TIMESTAMP_SHIFT) | slot.bits;
+        }
+        if ((last & MAX_SEQUENCE) < MAX_SEQUENCE) {
+            return last + 1;
+        }
+        return ((lastMillis + 1) << TIMESTAMP_SHIFT) | slot.bits;
+    }
+
+    // A free slot for the calling thread, handed back when the thread is collected
+    private static Slot claimSlot() {
+        Slot slot = FREE.poll();
+        if (slot == null) {
+            return SHARED;
+        }
+        slot.last.get(); // acquire: see the last id of the slot's previous owner
+        CLEANER.register(Thread.currentThread(), () -> FREE.add(slot));
+        return slot;
+    }
+
+    /**
+     * An id for a record saved before records had ids, derived from where
+     * it was saved (0 <= position < 2^62), so every load of the same data
+     * gives the record the same id. Derived ids are negative and generated
+     * ids positive, so the two never collide.
+     */
+    public static long fromPosition(long position) {
+        if (position < 0 || position > MAX_POSITION) {
+            throw new IllegalArgumentException("Position out of range: " + position);
+        }
+        return DERIVED | position;
+    }
+
+    /**
+     * An id saved as text by an older version (a millisecond timestamp), or
+     * one derived from the text if it is not a number - the same every time
+     */
+    public static long fromLegacy(String id) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            // 64-bit FNV-1a of the text, cut to the bits below the derived-id tags
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : String.valueOf(id).getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+            }
+            return DERIVED | DERIVED_FROM_TEXT | (hash & MAX_POSITION);
+        }
+    }
+
+    /**
+     * When an id was generated, in epoch milliseconds
+     */
+    public static long timestampMillis(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS;
+    }
+}
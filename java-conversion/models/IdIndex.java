@@ -0,0 +1,66 @@
+package models;
+
+/**
+ * IdIndex - Record id to position in its collection
+ *
+ * An open-addressing table of primitive longs and ints, so indexing
+ * millions of records costs a few bytes each rather than a boxed map entry.
+ * Positions are stored plus one, leaving 0 to mark an empty slot. Adding an
+ * id again points it at the newer position.
+ */
+class IdIndex {
+    private long[] ids = new long[16];
+    private int[] positions = new int[16];
+    private int size;
+
+    void put(long id, int position) {
+        if ((size + 1) * 4 > ids.length * 3) {
+            rehash();
+        }
+        int slot = find(ids, positions, id);
+        if (positions[slot] == 0) {
+            ids[slot] = id;
+            size++;
+        }
+        positions[slot] = position + 1;
+    }
+
+    /**
+     * Position of the record with this id, or -1
+     */
+    int get(long id) {
+        return positions[find(ids, positions, id)] - 1;
+    }
+
+    int size() { return size; }
+
+    // Slot holding id, or the empty slot where it would go
+    private static int find(long[] ids, int[] positions, long id) {
+        int mask = ids.length - 1;
+        int slot = hash(id) & mask;
+        while (positions[slot] != 0 && ids[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] newIds = new long[ids.length * 2];
+        int[] newPositions = new int[ids.length * 2];
+        for (int i = 0; i < ids.length; i++) {
+            if (positions[i] != 0) {
+                int slot = find(newIds, newPositions, ids[i]);
+                newIds[slot] = ids[i];
+                newPositions[slot] = positions[i];
+            }
+        }
+        ids = newIds;
+        positions = newPositions;
+    }
+
+    // Generated ids share their high bits; mix them all into the low ones
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
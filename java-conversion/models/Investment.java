@@ -0,0 +1,72 @@
+package models;
+
+import java.time.LocalDate;
+
+/**
+ * Investment Model - A holding with its purchase and current value
+ */
+public class Investment {
+    private long id;
+    private String name;
+    private long initialPaise;
+    private long currentPaise;
+    private String type;
+    private LocalDate purchaseDate;
+    
+    public Investment(String name, double initialAmount, double currentValue, String type) {
+        this(name, initialAmount, currentValue, type, Today.date());
+    }
+    
+    public Investment(String name, double initialAmount, double currentValue, String type, LocalDate purchaseDate) {
+        this(IdGenerator.next(), name, initialAmount, currentValue, type, purchaseDate);
+    }
+    
+    public Investment(long id, String name, double initialAmount, double currentValue, String type, LocalDate purchaseDate) {
+        this(id, Money.ofRupees(initialAmount), Money.ofRupees(currentValue), name, type, purchaseDate);
+    }
+    
+    private Investment(long id, long initialPaise, long currentPaise, String name, String type, LocalDate purchaseDate) {
+        this.id = id;
+        this.name = name;
+        this.initialPaise = initialPaise;
+        this.currentPaise = currentPaise;
+        this.type = type;
+        this.purchaseDate = purchaseDate;
+    }
+    
+    /**
+     * An investment whose amounts are already in paise (e.g. restored from disk)
+     */
+    public static Investment ofPaise(long id, String name, long initialPaise, long currentPaise, String type, LocalDate purchaseDate) {
+        return new Investment(id, initialPaise, currentPaise, name, type, purchaseDate);
+    }
+    
+    public long getId() { return id; }
+    public String getName() { return name; }
+    public double getInitialAmount() { return Money.toRupees(initialPaise); }
+    public double getCurrentValue() { return Money.toRupees(currentPaise); }
+    public long getInitialPaise() { return initialPaise; }
+    public long getCurrentPaise() { return currentPaise; }
+    public String getType() { return type; }
+    public LocalDate getPurchaseDate() { return purchaseDate; }
+    
+    public double getGain() {
+        return Money.toRupees(getGainPaise());
+    }
+    
+    public long getGainPaise() {
+        return Money.subtract(currentPaise, initialPaise);
+    }
+    
+    public double getReturnPercentage() {
+        return Money.percent(getGainPaise(), initialPaise);
+    }
+    
+    @Override
+    public String toString() {
+        double gain = getGain();
+        String gainSign = gain >= 0 ? "+" : "";
+        return String.format("%s (%s)\n  Initial: ₹%.2f | Current: ₹%.2f | Gain/Loss: %s₹%.2f (%.1f%%)",
+            name, type, getInitialAmount(), getCurrentValue(), gainSign, gain, getReturnPercentage());
+    }
+}
@@ -0,0 +1,362 @@
+package models;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * MappedTransactionStore - Off-heap columnar transaction store
+ *
+ * Each transaction is one row across six fixed-width column files mapped
+ * into memory: id (long), epoch day (int), amount in paise (long), type code
+ * (short), direction code (byte) and description code (int). Text values are
+ * dictionary-encoded, so a row costs 27 bytes outside the Java heap instead
+ * of a Transaction object with its Strings and LocalDate. Rows are turned
+ * back into Transaction objects only when they are read.
+ *
+ * Types and directions have a handful of values and keep a small on-heap
+ * dictionary. Descriptions are free text, so their dictionary is mapped too
+ * (see TextDictionary): the heap holds nothing per distinct description.
+ *
+ * The files are working storage only; durability is handled by
+ * services.PersistenceService. They are recreated empty when the store is
+ * opened and deleted by close().
+ */
+public class MappedTransactionStore implements TransactionStore {
+    private static final int INITIAL_CAPACITY = 4096;
+    
+    private final Path directory;
+    private final Column ids;
+    private final Column days;
+    private final Column amounts;
+    private final Column types;
+    private final Column directions;
+    private final Column descriptions;
+    
+    private final Dictionary typeDictionary = new Dictionary(1 << 16);
+    private final Dictionary directionDictionary = new Dictionary(1 << 8);
+    private final TextDictionary descriptionDictionary;
+    
+    private int size;
+    private int capacity;
+    private long totalIncomePaise;
+    
+    public MappedTransactionStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        this.capacity = INITIAL_CAPACITY;
+        this.ids = new Column(directory.resolve("id.col"), 8, capacity);
+        this.days = new Column(directory.resolve("day.col"), 4, capacity);
+        this.amounts = new Column(directory.resolve("amount.col"), 8, capacity);
+        this.types = new Column(directory.resolve("type.col"), 2, capacity);
+        this.directions = new Column(directory.resolve("direction.col"), 1, capacity);
+        this.descriptions = new Column(directory.resolve("description.col"), 4, capacity);
+        this.descriptionDictionary = new TextDictionary(directory.resolve("description.txt"), directory.resolve("description.idx"));
+    }
+    
+    @Override
+    public void add(Transaction transaction) {
+        if (size == capacity) {
+            grow();
+        }
+        long paise = transaction.getAmountPaise();
+        ids.buffer.putLong(size * 8, transaction.getId());
+        days.buffer.putInt(size * 4, (int) transaction.getDate().toEpochDay());
+        amounts.buffer.putLong(size * 8, paise);
+        types.buffer.putShort(size * 2, (short) typeDictionary.code(transaction.getType()));
+        directions.buffer.put(size, (byte) directionDictionary.code(transaction.getTransactionType()));
+        descriptions.buffer.putInt(size * 4, descriptionDictionary.code(transaction.getDescription()));
+        if (Money.isPositive(paise)) {
+            totalIncomePaise = Money.add(totalIncomePaise, paise);
+        }
+        size++;
+    }
+    
+    @Override
+    public int size() { return size; }
+    
+    @Override
+    public Transaction get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Transaction " + index + " of " + size);
+        }
+        return Transaction.ofPaise(
+            ids.buffer.getLong(index * 8),
+            descriptionDictionary.value(descriptions.buffer.getInt(index * 4)),
+            getAmountPaise(index),
+            typeDictionary.value(types.buffer.getShort(index * 2) & 0xFFFF),
+            directionDictionary.value(directions.buffer.get(index) & 0xFF),
+            LocalDate.ofEpochDay(getEpochDay(index)));
+    }
+    
+    /**
+     * Raw column access for callers that do not need a Transaction object
+     */
+    public long getAmountPaise(int index) { return amounts.buffer.getLong(index * 8); }
+    public int getEpochDay(int index) { return days.buffer.getInt(index * 4); }
+    
+    @Override
+    public long getTotalIncomePaise() { return totalIncomePaise; }
+    
+    @Override
+    public Iterator<Transaction> iterator() {
+        return new Iterator<Transaction>() {
+            private int next = 0;
+            
+            @Override
+            public boolean hasNext() { return next < size; }
+            
+            @Override
+            public Transaction next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(next++);
+            }
+        };
+    }
+    
+    /**
+     * Close and delete the column files. The mappings themselves are released
+     * once garbage collected (Java has no explicit unmap).
+     */
+    @Override
+    public void close() throws IOException {
+        for (Column column : new Column[] {ids, days, amounts, types, directions, descriptions}) {
+            column.close();
+        }
+        descriptionDictionary.close();
+        Files.deleteIfExists(directory);
+    }
+    
+    private void grow() {
+        if (capacity > Integer.MAX_VALUE / 16) {
+            throw new IllegalStateException("Transaction store is full: " + directory);
+        }
+        capacity *= 2;
+        try {
+            for (Column column : new Column[] {ids, days, amounts, types, directions, descriptions}) {
+                column.remap(capacity);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not grow transaction store", e);
+        }
+    }
+    
+    /**
+     * One fixed-width column file and its current mapping
+     */
+    private static class Column {
+        private final Path path;
+        private final int width;
+        private final FileChannel channel;
+        private MappedByteBuffer buffer;
+        
+        Column(Path path, int width, int capacity) throws IOException {
+            this.path = path;
+            this.width = width;
+            this.channel = createFresh(path);
+            remap(capacity);
+        }
+        
+        void remap(int capacity) throws IOException {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * width);
+        }
+        
+        void close() throws IOException {
+            buffer = null;
+            channel.close();
+            Files.deleteIfExists(path);
+        }
+    }
+    
+    /**
+     * A new empty file. A leftover file is deleted rather than truncated: a
+     * store that was never closed may still have it mapped, and truncating a
+     * mapped file makes that store crash on its next access.
+     */
+    private static FileChannel createFresh(Path path) throws IOException {
+        Files.deleteIfExists(path);
+        return FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+    
+    /**
+     * Interns strings off-heap. Each distinct value is appended once to a
+     * mapped text file as [int length][UTF-8 bytes] and its code is that
+     * entry's offset. An open-addressing table of offsets (+1, 0 = empty),
+     * also mapped, finds an existing entry by comparing bytes in place.
+     */
+    private static class TextDictionary {
+        private static final int INITIAL_TEXT_BYTES = 64 * 1024;
+        private static final int INITIAL_SLOTS = 1024;
+        private static final int NULL_CODE = -1;
+        
+        private final Path textPath;
+        private final Path tablePath;
+        private final FileChannel textChannel;
+        private final FileChannel tableChannel;
+        private MappedByteBuffer text;
+        private MappedByteBuffer table;
+        private int textSize;
+        private int slots;
+        private int count;
+        
+        TextDictionary(Path textPath, Path tablePath) throws IOException {
+            this.textPath = textPath;
+            this.tablePath = tablePath;
+            this.textChannel = createFresh(textPath);
+            this.tableChannel = createFresh(tablePath);
+            this.text = textChannel.map(FileChannel.MapMode.READ_WRITE, 0, INITIAL_TEXT_BYTES);
+            this.slots = INITIAL_SLOTS;
+            this.table = tableChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) slots * 4);
+        }
+        
+        int code(String value) {
+            if (value == null) {
+                return NULL_CODE;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int slot = find(bytes, hash(bytes));
+            int entry = table.getInt(slot * 4);
+            if (entry != 0) {
+                return entry - 1;
+            }
+            
+            int offset = textSize;
+            ensureText(4 + bytes.length);
+            text.putInt(offset, bytes.length);
+            text.put(offset + 4, bytes);
+            textSize += 4 + bytes.length;
+            table.putInt(slot * 4, offset + 1);
+            if (++count * 2 > slots) {
+                rehash(slots * 2);
+            }
+            return offset;
+        }
+        
+        String value(int code) {
+            if (code == NULL_CODE) {
+                return null;
+            }
+            byte[] bytes = new byte[text.getInt(code)];
+            text.get(code + 4, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        
+        // Slot holding this value, or the empty slot where it belongs
+        private int find(byte[] bytes, int hash) {
+            int mask = slots - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                int entry = table.getInt(slot * 4);
+                if (entry == 0 || matches(entry - 1, bytes)) {
+                    return slot;
+                }
+            }
+        }
+        
+        private boolean matches(int offset, byte[] bytes) {
+            if (text.getInt(offset) != bytes.length) {
+                return false;
+            }
+            for (int i = 0; i < bytes.length; i++) {
+                if (text.get(offset + 4 + i) != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private static int hash(byte[] bytes) {
+            int h = Arrays.hashCode(bytes);
+            return h ^ (h >>> 16);
+        }
+        
+        private static int hashAt(MappedByteBuffer text, int offset) {
+            int length = text.getInt(offset);
+            int h = 1;
+            for (int i = 0; i < length; i++) {
+                h = 31 * h + text.get(offset + 4 + i);
+            }
+            return h ^ (h >>> 16);
+        }
+        
+        private void ensureText(int needed) {
+            if ((long) textSize + needed <= text.capacity()) {
+                return;
+            }
+            long size = Math.max((long) text.capacity() * 2, (long) textSize + needed);
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Description dictionary is full: " + textPath);
+            }
+            try {
+                text = textChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not grow description dictionary", e);
+            }
+        }
+        
+        // Rebuild the table at a new size by walking the text entries in order
+        private void rehash(int newSlots) {
+            try {
+                table = tableChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) newSlots * 4);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not grow description dictionary", e);
+            }
+            slots = newSlots;
+            for (int slot = 0; slot < slots; slot++) {
+                table.putInt(slot * 4, 0);
+            }
+            int mask = slots - 1;
+            for (int offset = 0; offset < textSize; offset += 4 + text.getInt(offset)) {
+                int slot = hashAt(text, offset) & mask;
+                while (table.getInt(slot * 4) != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table.putInt(slot * 4, offset + 1);
+            }
+        }
+        
+        void close() throws IOException {
+            text = null;
+            table = null;
+            textChannel.close();
+            tableChannel.close();
+            Files.deleteIfExists(textPath);
+            Files.deleteIfExists(tablePath);
+        }
+    }
+    
+    /**
+     * Interns repeated strings as small integer codes
+     */
+    private static class Dictionary {
+        private final int limit;
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        
+        Dictionary(int limit) {
+            this.limit = limit;
+        }
+        
+        int code(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                if (values.size() == limit) {
+                    throw new IllegalStateException("Too many distinct values for column (" + limit + ")");
+                }
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+        
+        String value(int code) {
+            return values.get(code);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package models;
+
+/**
+ * Money - Helpers for amounts held as a primitive long number of paise
+ *
+ * Models store every amount as paise (1 rupee = 100 paise) so sums are exact
+ * and cost no more than long arithmetic. Nothing here allocates; rupee
+ * doubles only appear at the edges (user input and display).
+ */
+public final class Money {
+    public static final long PAISE_PER_RUPEE = 100;
+
+    private Money() {}
+
+    /**
+     * Convert rupees to paise, rounding to the nearest paisa
+     */
+    public static long ofRupees(double rupees) {
+        return Math.round(rupees * PAISE_PER_RUPEE);
+    }
+
+    public static double toRupees(long paise) {
+        return paise / (double) PAISE_PER_RUPEE;
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    public static int compare(long a, long b) {
+        return Long.compare(a, b);
+    }
+
+    public static boolean isPositive(long paise) {
+        return paise > 0;
+    }
+
+    /**
+     * part as a percentage of whole (0 when whole is 0)
+     */
+    public static double percent(long part, long whole) {
+        return whole == 0 ? 0 : part * 100.0 / whole;
+    }
+
+    /**
+     * The given share of an amount, e.g. percentOf(salary, 20) for 20%,
+     * rounded half-up to the nearest paisa
+     */
+    public static long percentOf(long paise, int percent) {
+        long scaled = Math.multiplyExact(paise, percent);
+        return scaled >= 0 ? (scaled + 50) / 100 : (scaled - 50) / 100;
+    }
+}
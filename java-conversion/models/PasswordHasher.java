@@ -0,0 +1,162 @@
+package models;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PasswordHasher - Salted PBKDF2 password hashes with a verification cache
+ *
+ * Hashes are stored as "pbkdf2-sha256$iterations$salt$hash". The iteration
+ * count is the per-deployment cost (-Dfinwise.password.iterations); it is
+ * recorded in each hash, so changing it never invalidates existing ones.
+ *
+ * A successful verification is remembered for a short time as an HMAC of
+ * the password under a random per-process key, so repeated sign-ins by the
+ * same user cost one HMAC instead of a full KDF run. No plain password is kept.
+ */
+public final class PasswordHasher {
+    private static final String PREFIX = "pbkdf2-sha256$";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BYTES = 32;
+    private static final int MAX_CACHE_ENTRIES = 100_000;
+
+    public static final int DEFAULT_ITERATIONS = 310_000;
+    public static final long DEFAULT_CACHE_TTL_MILLIS = 5 * 60 * 1000;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final byte[] CACHE_KEY = new byte[32];
+    static {
+        RANDOM.nextBytes(CACHE_KEY);
+    }
+    private static final ThreadLocal<Mac> CACHE_MAC = ThreadLocal.withInitial(() -> {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(CACHE_KEY, "HmacSHA256"));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    });
+
+    private static volatile int iterations = Integer.getInteger("finwise.password.iterations", DEFAULT_ITERATIONS);
+    private static volatile long cacheTtlMillis = DEFAULT_CACHE_TTL_MILLIS;
+
+    // Stored hash -> proof of a recent successful verification
+    private static final Map<String, CachedVerification> verified = new ConcurrentHashMap<>();
+
+    private PasswordHasher() {}
+
+    /**
+     * Hash a password with a fresh salt at the current cost
+     */
+    public static String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        int cost = iterations;
+        byte[] hash = pbkdf2(password, salt, cost);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + cost + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    /**
+     * Check a password against a stored hash in constant time
+     */
+    public static boolean verify(String password, String storedHash) {
+        if (password == null || !isHash(storedHash)) {
+            return false;
+        }
+
+        byte[] proof = cacheProof(password, storedHash);
+        CachedVerification cached = verified.get(storedHash);
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.expiresAt > now && MessageDigest.isEqual(cached.proof, proof)) {
+            return true;
+        }
+
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        Base64.Decoder decoder = Base64.getDecoder();
+        byte[] salt = decoder.decode(parts[2]);
+        byte[] expected = decoder.decode(parts[3]);
+        byte[] actual = pbkdf2(password, salt, Integer.parseInt(parts[1]));
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return false;
+        }
+
+        if (verified.size() >= MAX_CACHE_ENTRIES) {
+            verified.entrySet().removeIf(entry -> entry.getValue().expiresAt <= now);
+        }
+        if (verified.size() < MAX_CACHE_ENTRIES) {
+            verified.put(storedHash, new CachedVerification(proof, now + cacheTtlMillis));
+        }
+        return true;
+    }
+
+    public static boolean isHash(String value) {
+        return value != null && value.startsWith(PREFIX);
+    }
+
+    /**
+     * Forget any cached verification for this hash (e.g. after a password change)
+     */
+    public static void invalidate(String storedHash) {
+        if (storedHash != null) {
+            verified.remove(storedHash);
+        }
+    }
+
+    public static void setIterations(int cost) {
+        if (cost < 1) {
+            throw new IllegalArgumentException("Iterations must be positive");
+        }
+        iterations = cost;
+    }
+
+    public static int getIterations() { return iterations; }
+
+    /**
+     * How long a successful verification is trusted (0 disables the cache)
+     */
+    public static void setCacheTtlMillis(long ttl) {
+        cacheTtlMillis = Math.max(0, ttl);
+        verified.clear();
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int cost) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, cost, HASH_BYTES * 8);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static byte[] cacheProof(String password, String storedHash) {
+        Mac mac = CACHE_MAC.get();
+        mac.update(storedHash.getBytes(StandardCharsets.UTF_8));
+        return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class CachedVerification {
+        private final byte[] proof;
+        private final long expiresAt;
+
+        CachedVerification(byte[] proof, long expiresAt) {
+            this.proof = proof;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package models;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+
+/**
+ * PeriodAggregates - Running per-month and per-year totals of a user's records
+ *
+ * A materialized view of the ledgers: every recorded expense and investment
+ * adds its amount to its month and year as it is recorded, so
+ * reading a period's totals is a binary search over the periods that have
+ * records, no matter how much history there is. Only those periods get a
+ * slot, so a stray far-off date costs one more slot, not one per period
+ * in between.
+ */
+public class PeriodAggregates {
+    /**
+     * What is being totalled
+     */
+    public enum Measure {
+        EXPENSES, INVESTMENTS
+    }
+
+    private static final int MEASURES = Measure.values().length;
+
+    private final Totals months = new Totals();
+    private final Totals years = new Totals();
+
+    void add(Measure measure, LocalDate date, long amountPaise) {
+        months.add(date.getYear() * 12L + date.getMonthValue() - 1, measure, amountPaise);
+        years.add(date.getYear(), measure, amountPaise);
+    }
+
+    public long get(Measure measure, YearMonth month) {
+        return months.get(month.getYear() * 12L + month.getMonthValue() - 1, measure);
+    }
+
+    public long get(Measure measure, int year) {
+        return years.get(year, measure);
+    }
+
+    // Sorted period keys, each with one total per measure
+    private static final class Totals {
+        private long[] keys = new long[0];
+        private long[][] totals = new long[0][];
+        private int size;
+
+        void add(long key, Measure measure, long amountPaise) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index < 0) {
+                index = -index - 1;
+                if (size == keys.length) {
+                    int length = Math.max(8, size * 2);
+                    keys = Arrays.copyOf(keys, length);
+                    totals = Arrays.copyOf(totals, length);
+                }
+                System.arraycopy(keys, index, keys, index + 1, size - index);
+                System.arraycopy(totals, index, totals, index + 1, size - index);
+                keys[index] = key;
+                totals[index] = new long[MEASURES];
+                size++;
+            }
+            totals[index][measure.ordinal()] += amountPaise;
+        }
+
+        long get(long key, Measure measure) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            return index < 0 ? 0 : totals[index][measure.ordinal()];
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package models;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+/**
+ * PeriodKey - A budget period (a whole year, or one month of a year) packed into an int
+ *
+ * The key is year * 16 + month, with month 0 standing for the whole year,
+ * so keys compare in calendar order, a month's year key is one mask away
+ * and no object is needed per period. Periods typed by users are parsed
+ * from "2024", "January 2024" / "Jan 2024" and "2024-01".
+ */
+public final class PeriodKey {
+    // Returned by parse for text that is not a period
+    public static final int NONE = Integer.MIN_VALUE;
+
+    private static final int MONTH_BITS = 4;
+    private static final int MONTH_MASK = (1 << MONTH_BITS) - 1;
+
+    private PeriodKey() {}
+
+    public static int ofYear(int year) {
+        return year << MONTH_BITS;
+    }
+
+    /**
+     * The key for a month, month being 1..12
+     */
+    public static int ofMonth(int year, int month) {
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Invalid month: " + month);
+        }
+        return (year << MONTH_BITS) | month;
+    }
+
+    public static int ofMonth(LocalDate date) {
+        return ofMonth(date.getYear(), date.getMonthValue());
+    }
+
+    public static int year(int key) {
+        return key >> MONTH_BITS;
+    }
+
+    /**
+     * 1..12, or 0 for a whole-year key
+     */
+    public static int month(int key) {
+        return key & MONTH_MASK;
+    }
+
+    public static boolean isYear(int key) {
+        return month(key) == 0;
+    }
+
+    /**
+     * The whole-year key a key belongs to (itself for a year key)
+     */
+    public static int yearOf(int key) {
+        return key & ~MONTH_MASK;
+    }
+
+    /**
+     * Parse a period as users type it, or return NONE
+     */
+    public static int parse(String text) {
+        if (text == null) {
+            return NONE;
+        }
+        String period = text.trim();
+        int year = parseYear(period);
+        if (year != NONE) {
+            return ofYear(year);
+        }
+
+        // "2024-01" / "2024-1"
+        int dash = period.indexOf('-');
+        if (dash > 0) {
+            year = parseYear(period.substring(0, dash));
+            int month = parseNumber(period.substring(dash + 1), 2);
+            return year == NONE || month < 1 || month > 12 ? NONE : ofMonth(year, month);
+        }
+
+        // "January 2024" / "Jan 2024"
+        int space = period.lastIndexOf(' ');
+        if (space > 0) {
+            year = parseYear(period.substring(space + 1));
+            int month = parseMonthName(period.substring(0, space).trim());
+            return year == NONE || month == 0 ? NONE : ofMonth(year, month);
+        }
+        return NONE;
+    }
+
+    /**
+     * The period as it is shown to users: "2024" or "January 2024"
+     */
+    public static String format(int key) {
+        String year = String.valueOf(year(key));
+        if (isYear(key)) {
+            return year;
+        }
+        return Month.of(month(key)).getDisplayName(TextStyle.FULL, Locale.ENGLISH) + " " + year;
+    }
+
+    private static int parseYear(String text) {
+        int year = parseNumber(text, 4);
+        return text.length() == 4 && year >= 0 ? year : NONE;
+    }
+
+    // A non-negative number of at most maxDigits digits, or -1
+    private static int parseNumber(String text, int maxDigits) {
+        if (text.isEmpty() || text.length() > maxDigits) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // 1..12 for a full or three-letter English month name, otherwise 0
+    private static int parseMonthName(String name) {
+        if (name.length() < 3) {
+            return 0;
+        }
+        for (Month month : Month.values()) {
+            String full = month.getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+            if (full.equalsIgnoreCase(name) || full.substring(0, 3).equalsIgnoreCase(name)) {
+                return month.getValue();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,69 @@
+package models;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Today - The current date, read once per day instead of once per call
+ *
+ * LocalDate.now() resolves the time zone and reads the clock on every
+ * call. Here the date is worked out once together with the instants at
+ * which it starts and ends; after that a read is one millisecond clock
+ * read and a range check, and the date is worked out again on rollover.
+ *
+ * The clock can be replaced (e.g. with Clock.fixed) so date-dependent
+ * results such as Bill.getDaysUntilDue are reproducible in tests and
+ * benchmarks.
+ */
+public final class Today {
+    private static final class Day {
+        final Clock clock;
+        final LocalDate date;
+        final long startMillis;
+        final long endMillis;
+
+        Day(Clock clock) {
+            this.clock = clock;
+            ZoneId zone = clock.getZone();
+            this.date = LocalDate.now(clock);
+            this.startMillis = date.atStartOfDay(zone).toInstant().toEpochMilli();
+            this.endMillis = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+    }
+
+    private static volatile Day day = new Day(Clock.systemDefaultZone());
+
+    private Today() {}
+
+    public static LocalDate date() {
+        Day current = day;
+        long now = current.clock.millis();
+        if (now < current.startMillis || now >= current.endMillis) {
+            current = day = new Day(current.clock);
+        }
+        return current.date;
+    }
+
+    public static long epochDay() {
+        return date().toEpochDay();
+    }
+
+    public static int year() {
+        return date().getYear();
+    }
+
+    /**
+     * Use another clock from now on (e.g. Clock.fixed for reproducible dates)
+     */
+    public static void setClock(Clock clock) {
+        day = new Day(clock);
+    }
+
+    /**
+     * Back to the system clock in the default time zone
+     */
+    public static void useSystemClock() {
+        setClock(Clock.systemDefaultZone());
+    }
+}
@@ -0,0 +1,60 @@
+package models;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Transaction Model - Money sent or received through the wallet
+ */
+public class Transaction {
+    private long id;
+    private String description;
+    private long amountPaise;
+    private String type;
+    private String transactionType; // "receive" or "send"
+    private LocalDate date;
+    
+    public Transaction(String description, double amount, String type, String transactionType) {
+        this(description, amount, type, transactionType, Today.date());
+    }
+    
+    public Transaction(String description, double amount, String type, String transactionType, LocalDate date) {
+        this(IdGenerator.next(), description, amount, type, transactionType, date);
+    }
+    
+    public Transaction(long id, String description, double amount, String type, String transactionType, LocalDate date) {
+        this(id, Money.ofRupees(amount), description, type, transactionType, date);
+    }
+    
+    private Transaction(long id, long amountPaise, String description, String type, String transactionType, LocalDate date) {
+        this.id = id;
+        this.description = description;
+        this.amountPaise = amountPaise;
+        this.type = type;
+        this.transactionType = transactionType;
+        this.date = date;
+    }
+    
+    /**
+     * A transaction whose amount is already in paise (e.g. restored from disk)
+     */
+    public static Transaction ofPaise(long id, String description, long amountPaise, String type, String transactionType, LocalDate date) {
+        return new Transaction(id, amountPaise, description, type, transactionType, date);
+    }
+    
+    public long getId() { return id; }
+    public String getDescription() { return description; }
+    public double getAmount() { return Money.toRupees(amountPaise); }
+    public long getAmountPaise() { return amountPaise; }
+    public String getType() { return type; }
+    public String getTransactionType() { return transactionType; }
+    public LocalDate getDate() { return date; }
+    
+    @Override
+    public String toString() {
+        String sign = transactionType.equals("receive") ? "+" : "";
+        return String.format("[%s] %s: %s₹%.2f (%s)", 
+            date.format(DateTimeFormatter.ofPattern("MMM dd")),
+            description, sign, Math.abs(getAmount()), type);
+    }
+}
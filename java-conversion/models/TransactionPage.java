@@ -0,0 +1,48 @@
+package models;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * TransactionPage - One page of a user's transactions, newest first
+ *
+ * Cursors are positions in the ledger, so a page stays put when new
+ * transactions arrive while the user is paging. Start with
+ * User.NEWEST and follow getNextCursor() to go back in time.
+ */
+public class TransactionPage {
+    private final List<Transaction> transactions;
+    private final long cursor;
+    private final long nextCursor;
+    private final long previousCursor;
+
+    TransactionPage(List<Transaction> transactions, long cursor, long nextCursor, long previousCursor) {
+        this.transactions = Collections.unmodifiableList(transactions);
+        this.cursor = cursor;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+    }
+
+    public List<Transaction> getTransactions() { return transactions; }
+
+    /**
+     * Cursor that loads this same page again
+     */
+    public long getCursor() { return cursor; }
+
+    /**
+     * Cursor for the next (older) page
+     */
+    public long getNextCursor() { return nextCursor; }
+
+    /**
+     * Cursor for the previous (newer) page
+     */
+    public long getPreviousCursor() { return previousCursor; }
+
+    public boolean hasNext() { return nextCursor > 0; }
+
+    public boolean hasPrevious() { return previousCursor > cursor; }
+
+    public boolean isEmpty() { return transactions.isEmpty(); }
+}
@@ -0,0 +1,30 @@
+package models;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * TransactionStore - Storage for a user's transaction ledger, in insertion order
+ *
+ * HeapTransactionStore keeps ordinary objects in a list; MappedTransactionStore
+ * keeps fixed-width columns off-heap for very large ledgers.
+ */
+public interface TransactionStore extends Iterable<Transaction>, Closeable {
+    void add(Transaction transaction);
+    
+    int size();
+    
+    Transaction get(int index);
+    
+    /**
+     * Sum of all positive (incoming) amounts, in paise
+     */
+    long getTotalIncomePaise();
+    
+    /**
+     * Release whatever the store holds outside the heap (nothing by default)
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
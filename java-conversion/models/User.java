@@ -1,209 +1,452 @@
 package models;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * User Model - Represents a FinWise user
  */
 public class User {
+    // Cursor for the first (newest) page of transactionsPage
+    public static final long NEWEST = Long.MAX_VALUE;
+    
     private String id;
     private String email;
     private String fullName;
     private String phone;
-    private String password; // In production, this should be hashed
+    private String passwordHash; // Salted PBKDF2, see PasswordHasher
     private LocalDateTime createdAt;
     
     // Financial data collections
     private List<Expense> expenses;
     private List<Budget> budgets;
-    private List<Transaction> transactions;
+    private TransactionStore transactions; // with transactionDates and transactionIds, guarded by ledgerLock
     private List<Investment> investments;
     private List<Bill> bills;
+    private DueDateQueue<Bill> billSchedule; // bills by next due date
     private List<Account> accounts;
     private List<ExtraIncome> extraIncomes;
     
-    // Financial tracking
-    private double walletBalance;
-    private double annualSalary;
-    private double monthlySalary;
+    // Expense index: normalized category -> running totals and expense positions
+    private Map<String, CategoryTotals> categoryIndex;
+    private long totalExpensesPaise;
+    
+    // Date indexes: positions in expenses / transactions, bucketed by day and month
+    private DateIndex expenseDates;
+    private DateIndex transactionDates;
+    
+    // Per-month and per-year totals, updated as records are added
+    private PeriodAggregates aggregates;
+    
+    // Record id -> position in its collection, for lookups by id
+    private IdIndex expenseIds;
+    private IdIndex transactionIds;
+    private IdIndex budgetIds;
+    private IdIndex investmentIds;
+    private IdIndex billIds;
+    private IdIndex accountIds;
+    private IdIndex extraIncomeIds;
+    
+    // Guards the transaction ledger: a payer's thread credits it while the owner's session adds to it
+    private final Object ledgerLock = new Object();
+    
+    // Financial tracking (all amounts in paise, see Money)
+    private volatile long walletBalance; // read without the wallet lock, see services.WalletService
+    private long annualSalary;
+    private long monthlySalary;
     
     // Annual financial data
-    private double annualExpenses;
-    private double annualSavings;
-    private double annualInvestments;
-    private double annualRemaining;
+    private long annualExpenses;
+    private long annualSavings;
+    private long annualInvestments;
     
     // Monthly financial data
-    private double monthlyExpenses;
-    private double monthlySavings;
-    private double monthlyInvestments;
-    private double monthlyRemaining;
+    private long monthlyExpenses;
+    private long monthlySavings;
+    private long monthlyInvestments;
+    
+    // Extra incomes by period key, months rolled up into their year
+    private ExtraIncomeStore extraIncomeByPeriod;
+    
+    // Receives every state change so it can be persisted (null when not attached)
+    private UserMutationListener mutationListener;
+    
+    /**
+     * Numeric fields tracked by the mutation log
+     */
+    public enum Field {
+        WALLET_BALANCE, ANNUAL_SALARY, MONTHLY_SALARY,
+        ANNUAL_EXPENSES, ANNUAL_SAVINGS, ANNUAL_INVESTMENTS,
+        MONTHLY_EXPENSES, MONTHLY_SAVINGS, MONTHLY_INVESTMENTS
+    }
+    
+    /**
+     * Profile fields tracked by the mutation log
+     */
+    public enum ProfileField {
+        FULL_NAME, PHONE, PASSWORD
+    }
     
     public User(String email, String fullName, String password) {
-        this.id = UUID.randomUUID().toString();
+        this(Long.toString(IdGenerator.next()), email, fullName, PasswordHasher.hash(password), LocalDateTime.now());
+    }
+    
+    /**
+     * Recreate a user with a known identity (used when loading persisted data).
+     * Takes the stored password hash; a plain password saved by an older
+     * version is hashed on load.
+     */
+    public User(String id, String email, String fullName, String passwordHash, LocalDateTime createdAt) {
+        this.id = id;
         this.email = email;
         this.fullName = fullName;
-        this.password = password;
-        this.createdAt = LocalDateTime.now();
+        this.passwordHash = upgradePassword(passwordHash);
+        this.createdAt = createdAt;
         
         // Initialize collections
         this.expenses = new ArrayList<>();
         this.budgets = new ArrayList<>();
-        this.transactions = new ArrayList<>();
+        this.transactions = new HeapTransactionStore();
         this.investments = new ArrayList<>();
         this.bills = new ArrayList<>();
+        this.billSchedule = new DueDateQueue<>(Bill::getNextDueDate);
         this.accounts = new ArrayList<>();
         this.extraIncomes = new ArrayList<>();
+        this.categoryIndex = new HashMap<>();
+        this.totalExpensesPaise = 0;
+        this.expenseDates = new DateIndex();
+        this.transactionDates = new DateIndex();
+        this.aggregates = new PeriodAggregates();
+        this.extraIncomeByPeriod = new ExtraIncomeStore();
+        this.expenseIds = new IdIndex();
+        this.transactionIds = new IdIndex();
+        this.budgetIds = new IdIndex();
+        this.investmentIds = new IdIndex();
+        this.billIds = new IdIndex();
+        this.accountIds = new IdIndex();
+        this.extraIncomeIds = new IdIndex();
         
         // Initialize default values
-        this.walletBalance = 205430.0;
-        this.annualSalary = 6200000.0;
-        this.monthlySalary = 52000.0;
+        this.walletBalance = Money.ofRupees(205430.0);
+        this.annualSalary = Money.ofRupees(6200000.0);
+        this.monthlySalary = Money.ofRupees(52000.0);
         
         // Initialize annual financial data
-        this.annualExpenses = 3720000.0;
-        this.annualSavings = 1240000.0;
-        this.annualInvestments = 830000.0;
-        this.annualRemaining = 410000.0;
+        this.annualExpenses = Money.ofRupees(3720000.0);
+        this.annualSavings = Money.ofRupees(1240000.0);
+        this.annualInvestments = Money.ofRupees(830000.0);
         
         // Initialize monthly financial data
-        this.monthlyExpenses = 31000.0;
-        this.monthlySavings = 10500.0;
-        this.monthlyInvestments = 7000.0;
-        this.monthlyRemaining = 3500.0;
+        this.monthlyExpenses = Money.ofRupees(31000.0);
+        this.monthlySavings = Money.ofRupees(10500.0);
+        this.monthlyInvestments = Money.ofRupees(7000.0);
     }
     
     // Authentication
     public boolean authenticate(String password) {
-        return this.password.equals(password);
+        return PasswordHasher.verify(password, passwordHash);
     }
     
     public void setPassword(String password) {
-        this.password = password;
+        String hash = PasswordHasher.hash(password);
+        restoreProfile(ProfileField.PASSWORD, hash);
+        profileChanged(ProfileField.PASSWORD, hash);
     }
     
+    public String getPasswordHash() { return passwordHash; }
+    
+    private static String upgradePassword(String stored) {
+        return PasswordHasher.isHash(stored) ? stored : PasswordHasher.hash(stored);
+    }
+    
+    // Persistence hook
+    public void setMutationListener(UserMutationListener listener) { this.mutationListener = listener; }
+    
     // Getters
     public String getId() { return id; }
     public String getEmail() { return email; }
     public String getFullName() { return fullName; }
     public String getPhone() { return phone; }
     public LocalDateTime getCreatedAt() { return createdAt; }
-    public double getWalletBalance() { return walletBalance; }
-    public double getAnnualSalary() { return annualSalary; }
-    public double getMonthlySalary() { return monthlySalary; }
+    public double getWalletBalance() { return Money.toRupees(walletBalance); }
+    public long getWalletBalancePaise() { return walletBalance; }
+    public double getAnnualSalary() { return Money.toRupees(annualSalary); }
+    public double getMonthlySalary() { return Money.toRupees(monthlySalary); }
     
     // Setters
-    public void setPhone(String phone) { this.phone = phone; }
-    public void setFullName(String fullName) { this.fullName = fullName; }
-    public void setAnnualSalary(double salary) { this.annualSalary = salary; }
-    public void setMonthlySalary(double salary) { this.monthlySalary = salary; }
+    public void setPhone(String phone) { restoreProfile(ProfileField.PHONE, phone); profileChanged(ProfileField.PHONE, phone); }
+    public void setFullName(String fullName) { restoreProfile(ProfileField.FULL_NAME, fullName); profileChanged(ProfileField.FULL_NAME, fullName); }
+    public void setAnnualSalary(double salary) { setValue(Field.ANNUAL_SALARY, Money.ofRupees(salary)); }
+    public void setMonthlySalary(double salary) { setValue(Field.MONTHLY_SALARY, Money.ofRupees(salary)); }
     
     // Wallet operations
-    public void addToWallet(double amount) {
-        this.walletBalance += amount;
-        addTransaction(new Transaction("Wallet Top-up", amount, "Deposit", "receive"));
+    /**
+     * Add to the wallet and record the transaction. The ledger write is
+     * locked, but the balance update is not atomic by itself: concurrent
+     * callers serialize per user (services.WalletService does).
+     */
+    public void creditWallet(long paise, Transaction transaction) {
+        setValue(Field.WALLET_BALANCE, Money.add(walletBalance, paise));
+        addTransaction(transaction);
     }
     
-    public void deductFromWallet(double amount) {
-        this.walletBalance -= amount;
+    /**
+     * Take from the wallet and record the transaction, unless the balance does
+     * not cover it (then nothing changes). Same locking rule as creditWallet.
+     *
+     * @return false if the balance was insufficient
+     */
+    public boolean debitWallet(long paise, Transaction transaction) {
+        if (Money.compare(walletBalance, paise) < 0) {
+            return false;
+        }
+        setValue(Field.WALLET_BALANCE, Money.subtract(walletBalance, paise));
+        addTransaction(transaction);
+        return true;
+    }
+    
+    /**
+     * Move money from this wallet to the payee's, recording both transactions
+     * as one change so they are saved (and restored) together, unless the
+     * balance does not cover it. Callers hold both users' wallet locks; each
+     * ledger is written under its own user's ledger lock.
+     *
+     * @return false if the balance was insufficient
+     */
+    public boolean transferWallet(User payee, long paise, Transaction debit, Transaction credit) {
+        if (Money.compare(walletBalance, paise) < 0) {
+            return false;
+        }
+        restoreValue(Field.WALLET_BALANCE, Money.subtract(walletBalance, paise));
+        restoreTransaction(debit);
+        payee.restoreValue(Field.WALLET_BALANCE, Money.add(payee.walletBalance, paise));
+        payee.restoreTransaction(credit);
+        if (mutationListener != null) mutationListener.onWalletTransfer(this, payee, debit, credit);
+        return true;
     }
     
     // Annual financial data
-    public double getAnnualExpenses() { return annualExpenses; }
-    public double getAnnualSavings() { return annualSavings; }
-    public double getAnnualInvestments() { return annualInvestments; }
-    public double getAnnualRemaining() { return annualRemaining; }
+    public double getAnnualExpenses() { return Money.toRupees(annualExpenses); }
+    public double getAnnualSavings() { return Money.toRupees(annualSavings); }
+    public double getAnnualInvestments() { return Money.toRupees(annualInvestments); }
     
-    public void setAnnualExpenses(double amount) { this.annualExpenses = amount; updateAnnualRemaining(); }
-    public void setAnnualSavings(double amount) { this.annualSavings = amount; updateAnnualRemaining(); }
-    public void setAnnualInvestments(double amount) { this.annualInvestments = amount; updateAnnualRemaining(); }
+    /**
+     * Salary and this year's extra income left after the annual allocations
+     */
+    public double getAnnualRemaining() { return Money.toRupees(getAnnualRemainingPaise(currentYear())); }
     
-    private void updateAnnualRemaining() {
-        double totalExtraIncome = getTotalExtraIncome("2024");
-        this.annualRemaining = (annualSalary + totalExtraIncome) - (annualExpenses + annualSavings + annualInvestments);
+    public double getAnnualRemaining(String period) { return Money.toRupees(getAnnualRemainingPaise(period)); }
+    
+    public long getAnnualRemainingPaise(String period) {
+        return (annualSalary + getTotalExtraIncomePaise(period)) - (annualExpenses + annualSavings + annualInvestments);
+    }
+    
+    /**
+     * Salary and the period's extra income left after the annual allocations - O(1)
+     */
+    public long getAnnualRemainingPaise(int periodKey) {
+        return (annualSalary + getTotalExtraIncomePaise(periodKey)) - (annualExpenses + annualSavings + annualInvestments);
     }
     
+    public void setAnnualExpenses(double amount) { setValue(Field.ANNUAL_EXPENSES, Money.ofRupees(amount)); }
+    public void setAnnualSavings(double amount) { setValue(Field.ANNUAL_SAVINGS, Money.ofRupees(amount)); }
+    public void setAnnualInvestments(double amount) { setValue(Field.ANNUAL_INVESTMENTS, Money.ofRupees(amount)); }
+    
     // Monthly financial data
-    public double getMonthlyExpenses() { return monthlyExpenses; }
-    public double getMonthlySavings() { return monthlySavings; }
-    public double getMonthlyInvestments() { return monthlyInvestments; }
-    public double getMonthlyRemaining() { return monthlyRemaining; }
+    public double getMonthlyExpenses() { return Money.toRupees(monthlyExpenses); }
+    public double getMonthlySavings() { return Money.toRupees(monthlySavings); }
+    public double getMonthlyInvestments() { return Money.toRupees(monthlyInvestments); }
+    public double getMonthlyRemaining() { return Money.toRupees(getMonthlyRemainingPaise()); }
+    
+    public long getMonthlyRemainingPaise() {
+        return monthlySalary - (monthlyExpenses + monthlySavings + monthlyInvestments);
+    }
     
-    public void setMonthlyExpenses(double amount) { this.monthlyExpenses = amount; updateMonthlyRemaining(); }
-    public void setMonthlySavings(double amount) { this.monthlySavings = amount; updateMonthlyRemaining(); }
-    public void setMonthlyInvestments(double amount) { this.monthlyInvestments = amount; updateMonthlyRemaining(); }
+    public void setMonthlyExpenses(double amount) { setValue(Field.MONTHLY_EXPENSES, Money.ofRupees(amount)); }
+    public void setMonthlySavings(double amount) { setValue(Field.MONTHLY_SAVINGS, Money.ofRupees(amount)); }
+    public void setMonthlyInvestments(double amount) { setValue(Field.MONTHLY_INVESTMENTS, Money.ofRupees(amount)); }
+    
+    /**
+     * Recorded expenses and investments per month and year; extra income is
+     * totalled by the period it was entered for (getTotalExtraIncomePaise)
+     */
+    public PeriodAggregates getAggregates() { return aggregates; }
+    
+    /**
+     * What is left of the year's salary and extra income after the recorded
+     * expenses and investments and the planned savings. Extra income counts
+     * by its period, as in getAnnualRemainingPaise: the year's and its months'.
+     */
+    public long getActualRemainingPaise(int year) {
+        return annualSalary
+            + getTotalExtraIncomePaise(PeriodKey.ofYear(year))
+            - aggregates.get(PeriodAggregates.Measure.EXPENSES, year)
+            - aggregates.get(PeriodAggregates.Measure.INVESTMENTS, year)
+            - annualSavings;
+    }
     
-    private void updateMonthlyRemaining() {
-        this.monthlyRemaining = monthlySalary - (monthlyExpenses + monthlySavings + monthlyInvestments);
+    /**
+     * The same for one month, against the monthly salary and savings
+     */
+    public long getActualRemainingPaise(YearMonth month) {
+        return monthlySalary
+            + getTotalExtraIncomePaise(PeriodKey.ofMonth(month.getYear(), month.getMonthValue()))
+            - aggregates.get(PeriodAggregates.Measure.EXPENSES, month)
+            - aggregates.get(PeriodAggregates.Measure.INVESTMENTS, month)
+            - monthlySavings;
     }
     
     // Extra income management
     public void addExtraIncome(ExtraIncome income) {
-        extraIncomes.add(income);
+        restoreExtraIncome(income);
+        if (mutationListener != null) mutationListener.onExtraIncomeAdded(this, income);
     }
     
+    public List<ExtraIncome> getAllExtraIncomes() { return new ArrayList<>(extraIncomes); }
+    
+    public ExtraIncome getExtraIncome(long id) {
+        int position = extraIncomeIds.get(id);
+        return position < 0 ? null : extraIncomes.get(position);
+    }
+    
+    /**
+     * Extra incomes of a period ("2024", "January 2024", ...); a year
+     * includes those filed under its months. Text that is not a period
+     * ("Q1 2024") matches incomes entered with exactly that text.
+     */
     public List<ExtraIncome> getExtraIncomes(String period) {
-        List<ExtraIncome> result = new ArrayList<>();
-        for (ExtraIncome income : extraIncomes) {
-            if (income.getPeriod().equals(period)) {
-                result.add(income);
-            }
-        }
-        return result;
+        int key = PeriodKey.parse(period);
+        return key == PeriodKey.NONE ? extraIncomeByPeriod.incomes(period) : getExtraIncomes(key);
     }
     
+    public List<ExtraIncome> getExtraIncomes(int periodKey) { return extraIncomeByPeriod.incomes(periodKey); }
+    
     public double getTotalExtraIncome(String period) {
-        double total = 0;
-        for (ExtraIncome income : extraIncomes) {
-            if (income.getPeriod().equals(period)) {
-                total += income.getAmount();
-            }
-        }
-        return total;
+        return Money.toRupees(getTotalExtraIncomePaise(period));
+    }
+    
+    public long getTotalExtraIncomePaise(String period) {
+        int key = PeriodKey.parse(period);
+        return key == PeriodKey.NONE ? extraIncomeByPeriod.total(period) : getTotalExtraIncomePaise(key);
+    }
+    
+    /**
+     * Extra income total of a period key, a year rolling up its months - O(1)
+     */
+    public long getTotalExtraIncomePaise(int periodKey) { return extraIncomeByPeriod.total(periodKey); }
+    
+    private static int currentYear() {
+        return PeriodKey.ofYear(Today.year());
     }
     
     // Expense management
     public void addExpense(Expense expense) {
-        expenses.add(expense);
-        addTransaction(new Transaction(expense.getDescription(), -expense.getAmount(), expense.getCategory(), "send"));
+        restoreExpense(expense);
+        if (mutationListener != null) mutationListener.onExpenseAdded(this, expense);
+        addTransaction(Transaction.ofPaise(IdGenerator.next(), expense.getDescription(), -expense.getAmountPaise(), expense.getCategory(), "send", expense.getDate()));
     }
     
     public List<Expense> getAllExpenses() { return new ArrayList<>(expenses); }
     
+    /**
+     * The expense with this id, or null
+     */
+    public Expense getExpense(long id) {
+        int position = expenseIds.get(id);
+        return position < 0 ? null : expenses.get(position);
+    }
+    
     public List<Expense> getExpensesByCategory(String category) {
-        List<Expense> result = new ArrayList<>();
-        for (Expense e : expenses) {
-            if (e.getCategory().equalsIgnoreCase(category)) {
-                result.add(e);
-            }
+        CategoryTotals totals = categoryIndex.get(categoryKey(category));
+        if (totals == null) {
+            return new ArrayList<>();
+        }
+        List<Expense> result = new ArrayList<>(totals.count);
+        for (int i = 0; i < totals.count; i++) {
+            result.add(expenses.get(totals.positions[i]));
         }
         return result;
     }
     
     public double getExpensesForCategory(String category) {
-        double total = 0;
-        for (Expense e : expenses) {
-            if (e.getCategory().equalsIgnoreCase(category)) {
-                total += e.getAmount();
-            }
-        }
-        return total;
+        return Money.toRupees(getExpensesForCategoryPaise(category));
+    }
+    
+    public long getExpensesForCategoryPaise(String category) {
+        CategoryTotals totals = categoryIndex.get(categoryKey(category));
+        return totals == null ? 0 : totals.sum;
     }
     
     public double getTotalExpenses() {
-        double total = 0;
-        for (Expense e : expenses) {
-            total += e.getAmount();
+        return Money.toRupees(totalExpensesPaise);
+    }
+    
+    public long getTotalExpensesPaise() {
+        return totalExpensesPaise;
+    }
+    
+    /**
+     * Expenses dated from..to (both inclusive), oldest first
+     */
+    public List<Expense> getExpensesBetween(LocalDate from, LocalDate to) {
+        List<Expense> result = new ArrayList<>(expenseDates.count(from, to));
+        expenseDates.forEach(from, to, position -> result.add(expenses.get(position)));
+        return result;
+    }
+    
+    public long getExpensesBetweenPaise(LocalDate from, LocalDate to) {
+        return expenseDates.sum(from, to);
+    }
+    
+    public long getExpensesForMonthPaise(YearMonth month) {
+        return aggregates.get(PeriodAggregates.Measure.EXPENSES, month);
+    }
+    
+    public long getExpensesForYearPaise(int year) {
+        return aggregates.get(PeriodAggregates.Measure.EXPENSES, year);
+    }
+    
+    private static String categoryKey(String category) {
+        return category == null ? "" : category.toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Running totals for one expense category, kept current by addExpense
+     */
+    private static class CategoryTotals {
+        private long sum;
+        private int count;
+        private int[] positions = new int[8];
+        
+        void add(int position, long amount) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = position;
+            sum += amount;
         }
-        return total;
     }
     
     // Budget management
-    public void addBudget(Budget budget) { budgets.add(budget); }
+    public void addBudget(Budget budget) {
+        restoreBudget(budget);
+        if (mutationListener != null) mutationListener.onBudgetAdded(this, budget);
+    }
+    
     public List<Budget> getAllBudgets() { return new ArrayList<>(budgets); }
     
+    public Budget getBudget(long id) {
+        int position = budgetIds.get(id);
+        return position < 0 ? null : budgets.get(position);
+    }
+    
     public Budget getBudgetForCategory(String category) {
         for (Budget b : budgets) {
             if (b.getCategory().equalsIgnoreCase(category)) {
@@ -214,46 +457,308 @@ public class User {
     }
     
     // Transaction management
-    public void addTransaction(Transaction transaction) { transactions.add(transaction); }
-    public List<Transaction> getAllTransactions() { return new ArrayList<>(transactions); }
+    public void addTransaction(Transaction transaction) {
+        restoreTransaction(transaction);
+        if (mutationListener != null) mutationListener.onTransactionAdded(this, transaction);
+    }
+    
+    public List<Transaction> getAllTransactions() {
+        synchronized (ledgerLock) {
+            List<Transaction> result = new ArrayList<>(transactions.size());
+            for (Transaction t : transactions) {
+                result.add(t);
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * The transaction with this id, or null
+     */
+    public Transaction getTransaction(long id) {
+        synchronized (ledgerLock) {
+            int position = transactionIds.get(id);
+            return position < 0 ? null : transactions.get(position);
+        }
+    }
     
     public List<Transaction> getRecentTransactions(int count) {
-        int start = Math.max(0, transactions.size() - count);
-        return new ArrayList<>(transactions.subList(start, transactions.size()));
+        synchronized (ledgerLock) {
+            int start = Math.max(0, transactions.size() - count);
+            List<Transaction> result = new ArrayList<>(transactions.size() - start);
+            for (int i = start; i < transactions.size(); i++) {
+                result.add(transactions.get(i));
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Up to limit transactions older than the cursor, newest first. Pass
+     * NEWEST for the first page. Only the page is read, so the cost depends
+     * on limit, not on the size of the history.
+     */
+    public TransactionPage transactionsPage(long cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        synchronized (ledgerLock) {
+            int size = transactions.size();
+            int end = (int) Math.max(0, Math.min(cursor, size));
+            int start = Math.max(0, end - limit);
+            List<Transaction> page = new ArrayList<>(end - start);
+            for (int i = end - 1; i >= start; i--) {
+                page.add(transactions.get(i));
+            }
+            return new TransactionPage(page, end, start, Math.min(size, end + limit));
+        }
+    }
+    
+    /**
+     * All transactions, newest first, read lazily from the ledger as the
+     * stream is consumed (transactions added afterwards are not included)
+     */
+    public Stream<Transaction> transactionsNewestFirst() {
+        TransactionStore store;
+        int size;
+        synchronized (ledgerLock) {
+            store = transactions;
+            size = store.size();
+        }
+        return IntStream.range(0, size).mapToObj(i -> {
+            synchronized (ledgerLock) {
+                return store.get(size - 1 - i);
+            }
+        });
+    }
+    
+    public int getTransactionCount() {
+        synchronized (ledgerLock) {
+            return transactions.size();
+        }
+    }
+    
+    /**
+     * Transactions dated from..to (both inclusive), oldest first
+     */
+    public List<Transaction> getTransactionsBetween(LocalDate from, LocalDate to) {
+        synchronized (ledgerLock) {
+            List<Transaction> result = new ArrayList<>(transactionDates.count(from, to));
+            TransactionStore store = transactions;
+            transactionDates.forEach(from, to, position -> result.add(store.get(position)));
+            return result;
+        }
+    }
+    
+    /**
+     * Net amount of transactions dated from..to (both inclusive):
+     * money received minus money sent
+     */
+    public long getNetTransactionsBetweenPaise(LocalDate from, LocalDate to) {
+        synchronized (ledgerLock) {
+            return transactionDates.sum(from, to);
+        }
+    }
+    
+    public long getNetTransactionsForMonthPaise(YearMonth month) {
+        return getNetTransactionsBetweenPaise(month.atDay(1), month.atEndOfMonth());
     }
     
     public double getTotalIncome() {
-        double total = 0;
-        for (Transaction t : transactions) {
-            if (t.getAmount() > 0) {
-                total += t.getAmount();
+        return Money.toRupees(getTotalIncomePaise());
+    }
+    
+    public long getTotalIncomePaise() {
+        synchronized (ledgerLock) {
+            return transactions.getTotalIncomePaise();
+        }
+    }
+    
+    /**
+     * Move the ledger to a different store (e.g. a MappedTransactionStore for very
+     * large histories). Existing transactions are copied across in order and
+     * the previous store is closed.
+     */
+    public void setTransactionStore(TransactionStore store) {
+        TransactionStore previous;
+        synchronized (ledgerLock) {
+            for (Transaction t : transactions) {
+                store.add(t);
             }
+            previous = transactions;
+            this.transactions = store;
+        }
+        try {
+            previous.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close the previous transaction store", e);
+        }
+    }
+    
+    /**
+     * Release the transaction store's files, if it has any (on shutdown)
+     */
+    public void closeTransactionStore() throws IOException {
+        synchronized (ledgerLock) {
+            transactions.close();
         }
-        return total;
     }
     
     // Investment management
-    public void addInvestment(Investment investment) { investments.add(investment); }
+    public void addInvestment(Investment investment) {
+        restoreInvestment(investment);
+        if (mutationListener != null) mutationListener.onInvestmentAdded(this, investment);
+    }
+    
     public List<Investment> getAllInvestments() { return new ArrayList<>(investments); }
     
-    // Bill management
-    public void addBill(Bill bill) { bills.add(bill); }
+    public Investment getInvestment(long id) {
+        int position = investmentIds.get(id);
+        return position < 0 ? null : investments.get(position);
+    }
+    
+    // Bill management; adding a bill also schedules it for getUpcomingBills
+    public void addBill(Bill bill) {
+        restoreBill(bill);
+        if (mutationListener != null) mutationListener.onBillAdded(this, bill);
+    }
+    
     public List<Bill> getAllBills() { return new ArrayList<>(bills); }
     
+    public Bill getBill(long id) {
+        int position = billIds.get(id);
+        return position < 0 ? null : bills.get(position);
+    }
+    
+    /**
+     * Bills due within the next days (today included), soonest first. Only
+     * the bills due are visited, not every bill on record.
+     *
+     * Not a pure read: bills whose due date has passed are first rolled on
+     * to their next one in the user's bill schedule (the bills themselves
+     * are untouched), so call it under the same rules as the add methods.
+     */
     public List<Bill> getUpcomingBills(int days) {
-        List<Bill> upcoming = new ArrayList<>();
-        for (Bill bill : bills) {
-            if (bill.getDaysUntilDue() <= days && bill.getDaysUntilDue() >= 0) {
-                upcoming.add(bill);
-            }
-        }
-        return upcoming;
+        LocalDate today = Today.date();
+        billSchedule.advanceTo(today);
+        return billSchedule.dueBy(today.plusDays(days));
     }
     
     // Account management
-    public void addAccount(Account account) { accounts.add(account); }
+    public void addAccount(Account account) {
+        restoreAccount(account);
+        if (mutationListener != null) mutationListener.onAccountAdded(this, account);
+    }
+    
     public List<Account> getAllAccounts() { return new ArrayList<>(accounts); }
     
+    public Account getAccount(long id) {
+        int position = accountIds.get(id);
+        return position < 0 ? null : accounts.get(position);
+    }
+    
+    /*
+     * Replay hooks - apply a persisted change as-is, without notifying the
+     * mutation listener or deriving follow-up records (e.g. the transaction
+     * that addExpense creates is replayed from its own log record).
+     */
+    public void restoreProfile(ProfileField field, String value) {
+        switch (field) {
+            case FULL_NAME: this.fullName = value; break;
+            case PHONE: this.phone = value; break;
+            case PASSWORD:
+                PasswordHasher.invalidate(this.passwordHash);
+                this.passwordHash = upgradePassword(value);
+                break;
+        }
+    }
+    
+    public void restoreValue(Field field, long value) {
+        switch (field) {
+            case WALLET_BALANCE: this.walletBalance = value; break;
+            case ANNUAL_SALARY: this.annualSalary = value; break;
+            case MONTHLY_SALARY: this.monthlySalary = value; break;
+            case ANNUAL_EXPENSES: this.annualExpenses = value; break;
+            case ANNUAL_SAVINGS: this.annualSavings = value; break;
+            case ANNUAL_INVESTMENTS: this.annualInvestments = value; break;
+            case MONTHLY_EXPENSES: this.monthlyExpenses = value; break;
+            case MONTHLY_SAVINGS: this.monthlySavings = value; break;
+            case MONTHLY_INVESTMENTS: this.monthlyInvestments = value; break;
+        }
+    }
+    
+    public void restoreExpense(Expense expense) {
+        CategoryTotals totals = categoryIndex.computeIfAbsent(categoryKey(expense.getCategory()), k -> new CategoryTotals());
+        totals.add(expenses.size(), expense.getAmountPaise());
+        totalExpensesPaise = Money.add(totalExpensesPaise, expense.getAmountPaise());
+        expenseDates.add(expense.getDate(), expenses.size(), expense.getAmountPaise());
+        aggregates.add(PeriodAggregates.Measure.EXPENSES, expense.getDate(), expense.getAmountPaise());
+        expenseIds.put(expense.getId(), expenses.size());
+        expenses.add(expense);
+    }
+    
+    /**
+     * File the transaction in the ledger under this user's ledger lock, so
+     * it is safe alongside a credit from another user's transfer
+     */
+    public void restoreTransaction(Transaction transaction) {
+        synchronized (ledgerLock) {
+            transactionDates.add(transaction.getDate(), transactions.size(), transaction.getAmountPaise());
+            transactionIds.put(transaction.getId(), transactions.size());
+            transactions.add(transaction);
+        }
+    }
+    public void restoreBudget(Budget budget) {
+        budgetIds.put(budget.getId(), budgets.size());
+        budgets.add(budget);
+    }
+    public void restoreInvestment(Investment investment) {
+        aggregates.add(PeriodAggregates.Measure.INVESTMENTS, investment.getPurchaseDate(), investment.getInitialPaise());
+        investmentIds.put(investment.getId(), investments.size());
+        investments.add(investment);
+    }
+    public void restoreBill(Bill bill) {
+        billSchedule.add(bill, Today.date());
+        billIds.put(bill.getId(), bills.size());
+        bills.add(bill);
+    }
+    public void restoreAccount(Account account) {
+        accountIds.put(account.getId(), accounts.size());
+        accounts.add(account);
+    }
+    public void restoreExtraIncome(ExtraIncome income) {
+        extraIncomeByPeriod.add(income);
+        extraIncomeIds.put(income.getId(), extraIncomes.size());
+        extraIncomes.add(income);
+    }
+    
+    private void profileChanged(ProfileField field, String value) {
+        if (mutationListener != null) mutationListener.onProfileChanged(this, field, value);
+    }
+    
+    private void setValue(Field field, long paise) {
+        restoreValue(field, paise);
+        if (mutationListener != null) mutationListener.onValueChanged(this, field, paise);
+    }
+    
+    /**
+     * Current value of a tracked numeric field, in paise
+     */
+    public long getValuePaise(Field field) {
+        switch (field) {
+            case WALLET_BALANCE: return walletBalance;
+            case ANNUAL_SALARY: return annualSalary;
+            case MONTHLY_SALARY: return monthlySalary;
+            case ANNUAL_EXPENSES: return annualExpenses;
+            case ANNUAL_SAVINGS: return annualSavings;
+            case ANNUAL_INVESTMENTS: return annualInvestments;
+            case MONTHLY_EXPENSES: return monthlyExpenses;
+            case MONTHLY_SAVINGS: return monthlySavings;
+            case MONTHLY_INVESTMENTS: return monthlyInvestments;
+            default: throw new IllegalArgumentException("Unknown field: " + field);
+        }
+    }
+    
     public String getFormattedCreatedDate() {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
         return createdAt.format(formatter);
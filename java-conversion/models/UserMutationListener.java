@@ -0,0 +1,18 @@
+package models;
+
+/**
+ * UserMutationListener - Notified of every state change made through a User's
+ * public mutators, so the change can be recorded (see services.PersistenceService)
+ */
+public interface UserMutationListener {
+    void onProfileChanged(User user, User.ProfileField field, String value);
+    void onValueChanged(User user, User.Field field, long paise);
+    void onExpenseAdded(User user, Expense expense);
+    void onTransactionAdded(User user, Transaction transaction);
+    void onBudgetAdded(User user, Budget budget);
+    void onInvestmentAdded(User user, Investment investment);
+    void onBillAdded(User user, Bill bill);
+    void onAccountAdded(User user, Account account);
+    void onExtraIncomeAdded(User user, ExtraIncome income);
+    void onWalletTransfer(User payer, User payee, Transaction debit, Transaction credit);
+}
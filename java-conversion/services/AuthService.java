@@ -1,52 +1,170 @@
 package services;
 
+import models.MappedTransactionStore;
+import models.TransactionStore;
 import models.User;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * AuthService - Handles user authentication and session management
  * Equivalent to AuthContext.tsx in the React app
  */
 public class AuthService {
-    private static AuthService instance;
     private List<User> users;
-    private User currentUser;
-    private boolean isAuthenticated;
+    // Lookup indexes kept alongside users (see emailKey/phoneKey for normalization)
+    private Map<String, User> usersByEmail;
+    private Map<String, User> usersByPhone;
+    private final SessionManager sessions;
+    private PersistenceService persistence;
+    private LatencyModel latency;
+    // Serializes the email check with saving and publishing a new user
+    private final Object signUpLock = new Object();
     
     private AuthService() {
-        this.users = new ArrayList<>();
-        this.currentUser = null;
-        this.isAuthenticated = false;
-        initializeDemoData();
+        this.users = Collections.synchronizedList(new ArrayList<>());
+        this.usersByEmail = new ConcurrentHashMap<>();
+        this.usersByPhone = new ConcurrentHashMap<>();
+        this.sessions = new SessionManager(SessionManager.DEFAULT_IDLE_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+        this.latency = defaultLatency();
+        loadUsers();
+        if (users.isEmpty()) {
+            initializeDemoData();
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "finwise-shutdown"));
+    }
+    
+    // Lazy, thread-safe initialization: the holder class loads on first getInstance()
+    private static class Holder {
+        private static final AuthService INSTANCE = new AuthService();
     }
     
     public static AuthService getInstance() {
-        if (instance == null) {
-            instance = new AuthService();
+        return Holder.INSTANCE;
+    }
+    
+    /**
+     * No artificial delay unless -Dfinwise.auth.latency.ms=<millis> asks for the
+     * simulated network round trip the original web app had (it used 500 ms)
+     */
+    private static LatencyModel defaultLatency() {
+        String millis = System.getProperty("finwise.auth.latency.ms");
+        if (millis == null) {
+            return LatencyModel.NONE;
+        }
+        try {
+            return LatencyModel.simulatedNetwork(Long.parseLong(millis.trim()), 0);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Warning: ignoring invalid finwise.auth.latency.ms: " + millis);
+            return LatencyModel.NONE;
+        }
+    }
+    
+    /**
+     * Replace the latency applied to sign in/up and password reset
+     */
+    public void setLatencyModel(LatencyModel latency) {
+        this.latency = latency == null ? LatencyModel.NONE : latency;
+    }
+    
+    /**
+     * Restore saved users from the data directory (-Dfinwise.data.dir, default ./finwise-data).
+     * An empty value keeps everything in memory (benchmarks, throwaway demos).
+     * Saved data that cannot be restored stops startup rather than being
+     * silently replaced by an empty in-memory store.
+     */
+    private void loadUsers() {
+        String dataDir = System.getProperty("finwise.data.dir", "finwise-data");
+        if (dataDir.isEmpty()) {
+            return;
+        }
+        try {
+            persistence = new PersistenceService(Paths.get(dataDir));
+            for (User user : persistence.load(this::openTransactionStore)) {
+                usersByEmail.put(emailKey(user.getEmail()), user);
+                indexPhone(user);
+                users.add(user);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Saved data in " + dataDir + " could not be loaded (" + e.getMessage()
+                + "); move it aside to start fresh, or run with -Dfinwise.data.dir= to keep everything in memory", e);
+        }
+    }
+    
+    /**
+     * Keep ledgers off-heap when -Dfinwise.transactions.dir is set (useful for very
+     * large transaction histories); null keeps the default in-memory list.
+     * Loading asks for the store as each user is created, so restored
+     * transactions never sit on the heap.
+     */
+    private TransactionStore openTransactionStore(User user) {
+        String directory = System.getProperty("finwise.transactions.dir");
+        if (directory == null) {
+            return null;
+        }
+        try {
+            return new MappedTransactionStore(Paths.get(directory, user.getId()));
+        } catch (IOException e) {
+            System.out.println("Warning: using in-memory transactions for " + user.getEmail() + " (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+    
+    /**
+     * On JVM exit: make the last logged changes durable, then release
+     * transaction store files
+     */
+    private void shutdown() {
+        if (persistence != null) {
+            try {
+                persistence.close();
+            } catch (IOException e) {
+                System.out.println("Warning: could not save the last changes (" + e.getMessage() + ")");
+            }
+        }
+        for (User user : getAllUsers()) {
+            try {
+                user.closeTransactionStore();
+            } catch (IOException e) {
+                System.out.println("Warning: could not release transactions of " + user.getEmail() + " (" + e.getMessage() + ")");
+            }
         }
-        return instance;
     }
     
     private void initializeDemoData() {
         // Create a demo user for testing
         User demoUser = new User("demo@finwise.com", "Rahul Sharma", "password123");
         demoUser.setPhone("+91 98765 43210");
+        usersByEmail.put(emailKey(demoUser.getEmail()), demoUser);
+        indexPhone(demoUser);
         users.add(demoUser);
+        persist(demoUser);
+    }
+    
+    private void persist(User user) {
+        TransactionStore store = openTransactionStore(user);
+        if (store != null) {
+            user.setTransactionStore(store);
+        }
+        if (persistence != null) {
+            persistence.register(user);
+        }
     }
     
     /**
      * Sign in with email and password
+     * @return session token identifying this sign-in
      */
-    public boolean signIn(String email, String password) throws Exception {
-        // Simulate API delay
-        Thread.sleep(500);
+    public String signIn(String email, String password) throws Exception {
+        latency.await("auth.signIn");
         
-        for (User user : users) {
-            if (user.getEmail().equals(email) && user.authenticate(password)) {
-                this.currentUser = user;
-                this.isAuthenticated = true;
-                return true;
-            }
+        User user = findUserByEmail(email);
+        if (user != null && user.authenticate(password)) {
+            return sessions.open(user);
         }
         
         throw new Exception("Invalid credentials. Please check your email and password.");
@@ -54,55 +172,48 @@ public class AuthService {
     
     /**
      * Sign up new user
+     * @return session token for the new user, who is signed in straight away
      */
-    public boolean signUp(String email, String fullName, String password, String phone) throws Exception {
-        // Simulate API delay
-        Thread.sleep(500);
+    public String signUp(String email, String fullName, String password, String phone) throws Exception {
+        latency.await("auth.signUp");
         
-        // Check if email already exists
-        for (User user : users) {
-            if (user.getEmail().equals(email)) {
-                throw new Exception("Email already registered. Please use a different email.");
-            }
+        // Turn away a taken email before paying for the password hash
+        if (findUserByEmail(email) != null) {
+            throw new Exception("Email already registered. Please use a different email.");
         }
-        
-        // Create new user
         User newUser = new User(email, fullName, password);
         if (phone != null && !phone.isEmpty()) {
             newUser.setPhone(phone);
         }
         
-        users.add(newUser);
-        this.currentUser = newUser;
-        this.isAuthenticated = true;
+        // Save the user before anyone can find them, so every payment to them can be logged
+        synchronized (signUpLock) {
+            if (findUserByEmail(email) != null) {
+                throw new Exception("Email already registered. Please use a different email.");
+            }
+            persist(newUser);
+            usersByEmail.put(emailKey(email), newUser);
+            indexPhone(newUser);
+            users.add(newUser);
+        }
         
-        return true;
+        return sessions.open(newUser);
     }
     
     /**
-     * Sign out current user
+     * Sign out the session with this token
      */
-    public void signOut() {
-        this.currentUser = null;
-        this.isAuthenticated = false;
+    public void signOut(String sessionToken) {
+        sessions.close(sessionToken);
     }
     
     /**
      * Forgot password (mock implementation)
      */
     public void forgotPassword(String email) throws Exception {
-        // Simulate API delay
-        Thread.sleep(500);
-        
-        boolean userExists = false;
-        for (User user : users) {
-            if (user.getEmail().equals(email)) {
-                userExists = true;
-                break;
-            }
-        }
+        latency.await("auth.forgotPassword");
         
-        if (!userExists) {
+        if (findUserByEmail(email) == null) {
             throw new Exception("Email not found in our records.");
         }
         
@@ -110,17 +221,84 @@ public class AuthService {
     }
     
     /**
-     * Get current user
+     * Get the user signed in with this session token (null if signed out or expired)
+     */
+    public User getCurrentUser(String sessionToken) {
+        return sessions.getUser(sessionToken);
+    }
+    
+    /**
+     * Check if the session token is still signed in
+     */
+    public boolean isAuthenticated(String sessionToken) {
+        return sessions.getUser(sessionToken) != null;
+    }
+    
+    /**
+     * Language of the session with this token (null if signed out or expired)
      */
-    public User getCurrentUser() {
-        return currentUser;
+    public LocaleContext getLocale(String sessionToken) {
+        return sessions.getLocale(sessionToken);
     }
     
     /**
-     * Check if user is authenticated
+     * Switch the session with this token to another language
      */
-    public boolean isAuthenticated() {
-        return isAuthenticated;
+    public void setLocale(String sessionToken, LocaleContext locale) {
+        sessions.setLocale(sessionToken, locale);
+    }
+    
+    /**
+     * Where users' changes are saved, or null when everything is kept in memory
+     */
+    public PersistenceService getPersistence() {
+        return persistence;
+    }
+    
+    public int getActiveSessionCount() {
+        return sessions.getActiveSessionCount();
+    }
+    
+    /**
+     * Look up a user by email (case-insensitive), or null if not registered
+     */
+    public User findUserByEmail(String email) {
+        return email == null ? null : usersByEmail.get(emailKey(email));
+    }
+    
+    /**
+     * Look up a user by phone number in any common format
+     * ("+91 98765 43210", "9876543210", ...), or null if not registered
+     */
+    public User findUserByPhone(String phone) {
+        String key = phoneKey(phone);
+        return key.isEmpty() ? null : usersByPhone.get(key);
+    }
+    
+    private void indexPhone(User user) {
+        String key = phoneKey(user.getPhone());
+        if (!key.isEmpty()) {
+            usersByPhone.putIfAbsent(key, user);
+        }
+    }
+    
+    private static String emailKey(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    // Digits only; numbers with a country code are keyed by their last 10 digits
+    private static String phoneKey(String phone) {
+        if (phone == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.length() > 10 ? digits.substring(digits.length() - 10) : digits.toString();
     }
     
     /**
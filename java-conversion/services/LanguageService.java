@@ -1,30 +1,54 @@
 package services;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * LanguageService - Handles internationalization and translations
  * Equivalent to LanguageContext.tsx in the React app
+ *
+ * Holds no "current language": each session keeps its own LocaleContext
+ * (see getContext) and translates through it.
  */
 public class LanguageService {
-    private static LanguageService instance;
-    private String currentLanguage;
-    private Map<String, Map<String, String>> translations;
+    // Marks a language without a bundle, so it is only looked for once
+    private static final LocaleContext MISSING = new LocaleContext(null, new String[0]);
+    
+    // Per language, every MessageKey id -> text, with English already filled in for gaps.
+    // Only English is read at startup; other bundles load on first use.
+    private final Map<String, LocaleContext> contexts;
+    private final String[] englishTable;
+    private final LocaleContext english;
     private List<Language> supportedLanguages;
     
     private LanguageService() {
-        this.currentLanguage = "en";
-        this.translations = new HashMap<>();
+        this.contexts = new ConcurrentHashMap<>();
+        String[] english = loadTable("en", null);
+        if (english == null) {
+            // No bundle on the classpath: show the key names rather than fail
+            english = new String[MessageKey.COUNT];
+            for (int id = 0; id < english.length; id++) {
+                english[id] = MessageKey.name(id);
+            }
+        }
+        this.englishTable = english;
+        this.english = new LocaleContext("en", english);
+        contexts.put("en", this.english);
         this.supportedLanguages = new ArrayList<>();
-        initializeTranslations();
         initializeLanguages();
     }
     
+    // Lazy, thread-safe initialization: the holder class loads on first getInstance()
+    private static class Holder {
+        private static final LanguageService INSTANCE = new LanguageService();
+    }
+    
     public static LanguageService getInstance() {
-        if (instance == null) {
-            instance = new LanguageService();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
     
     private void initializeLanguages() {
@@ -46,104 +70,56 @@ public class LanguageService {
         supportedLanguages.add(new Language("de", "German", "Deutsch"));
     }
     
-    private void initializeTranslations() {
-        // English translations
-        Map<String, String> en = new HashMap<>();
-        en.put("app.title", "FinWise");
-        en.put("app.tagline", "Invest and finance wisely");
-        en.put("auth.signin", "Sign In");
-        en.put("auth.signup", "Sign Up");
-        en.put("auth.email", "Email");
-        en.put("auth.password", "Password");
-        en.put("auth.fullName", "Full Name");
-        en.put("auth.phone", "Phone Number");
-        en.put("auth.welcome", "Welcome to FinWise");
-        en.put("nav.wallet", "Wallet");
-        en.put("nav.ecoplanning", "EcoPlanning");
-        en.put("nav.settings", "Settings");
-        en.put("common.menu", "Menu");
-        en.put("common.loading", "Loading...");
-        en.put("common.add", "Add");
-        en.put("common.save", "Save");
-        en.put("common.cancel", "Cancel");
-        translations.put("en", en);
-        
-        // Hindi translations
-        Map<String, String> hi = new HashMap<>();
-        hi.put("app.title", "फिनवाइज");
-        hi.put("app.tagline", "समझदारी से निवेश और वित्त प्रबंधन करें");
-        hi.put("auth.signin", "साइन इन करें");
-        hi.put("auth.signup", "साइन अप करें");
-        hi.put("auth.email", "ईमेल");
-        hi.put("auth.password", "पासवर्ड");
-        hi.put("auth.fullName", "पूरा नाम");
-        hi.put("auth.phone", "फोन नंबर");
-        hi.put("auth.welcome", "फिनवाइज में आपका स्वागत है");
-        hi.put("nav.wallet", "वॉलेट");
-        hi.put("nav.ecoplanning", "इकोप्लानिंग");
-        hi.put("nav.settings", "सेटिंग्स");
-        hi.put("common.menu", "मेनू");
-        hi.put("common.loading", "लोड हो रहा है...");
-        hi.put("common.add", "जोड़ें");
-        hi.put("common.save", "सहेजें");
-        hi.put("common.cancel", "रद्द करें");
-        translations.put("hi", hi);
-        
-        // Gujarati translations
-        Map<String, String> gu = new HashMap<>();
-        gu.put("app.title", "ફિનવાઇઝ");
-        gu.put("app.tagline", "સમજદારીથી રોકાણ અને નાણાં વ્યવસ્થાપન");
-        gu.put("auth.signin", "સાઇન ઇન કરો");
-        gu.put("auth.signup", "સાઇન અપ કરો");
-        gu.put("auth.email", "ઇમેઇલ");
-        gu.put("auth.password", "પાસવર્ડ");
-        gu.put("auth.fullName", "પૂરું નામ");
-        gu.put("auth.phone", "ફોન નંબર");
-        gu.put("auth.welcome", "ફિનવાઇઝમાં આપનું સ્વાગત છે");
-        gu.put("nav.wallet", "વૉલેટ");
-        gu.put("nav.ecoplanning", "ઇકોપ્લાનિંગ");
-        gu.put("nav.settings", "સેટિંગ્સ");
-        gu.put("common.menu", "મેનૂ");
-        gu.put("common.loading", "લોડ થઈ રહ્યું છે...");
-        gu.put("common.add", "ઉમેરો");
-        gu.put("common.save", "સેવ કરો");
-        gu.put("common.cancel", "રદ કરો");
-        translations.put("gu", gu);
-    }
-    
     /**
-     * Get translation for a key
+     * Read a language's bundle (i18n/messages_<code>.properties on the classpath)
+     * into a String[] indexed by MessageKey id. Gaps take the English text, and
+     * the key name if English has none either. Returns null if there is no bundle.
      */
-    public String t(String key) {
-        Map<String, String> languageMap = translations.get(currentLanguage);
-        if (languageMap != null && languageMap.containsKey(key)) {
-            return languageMap.get(key);
+    private static String[] loadTable(String languageCode, String[] fallback) {
+        String resource = "/i18n/messages_" + languageCode + ".properties";
+        Properties messages = new Properties();
+        try (InputStream in = LanguageService.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                return null;
+            }
+            messages.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.out.println("Warning: could not read " + resource + " (" + e.getMessage() + ")");
+            return null;
         }
         
-        // Fallback to English
-        Map<String, String> englishMap = translations.get("en");
-        if (englishMap != null && englishMap.containsKey(key)) {
-            return englishMap.get(key);
+        String[] table = new String[MessageKey.COUNT];
+        for (int id = 0; id < table.length; id++) {
+            String text = messages.getProperty(MessageKey.name(id));
+            if (text != null) {
+                table[id] = text.intern();
+            } else {
+                table[id] = fallback != null ? fallback[id] : MessageKey.name(id);
+            }
         }
-        
-        // Return key if translation not found
-        return key;
+        return table;
     }
     
     /**
-     * Set current language
+     * Context for a language, loading its bundle on first use;
+     * null if the language has no bundle
      */
-    public void setLanguage(String languageCode) {
-        if (translations.containsKey(languageCode)) {
-            this.currentLanguage = languageCode;
+    public LocaleContext getContext(String languageCode) {
+        if (languageCode == null) {
+            return null;
         }
+        LocaleContext context = contexts.computeIfAbsent(languageCode, code -> {
+            String[] table = loadTable(code, englishTable);
+            return table != null ? new LocaleContext(code, table) : MISSING;
+        });
+        return context == MISSING ? null : context;
     }
     
     /**
-     * Get current language
+     * English, the language new sessions start in
      */
-    public String getCurrentLanguage() {
-        return currentLanguage;
+    public LocaleContext getDefaultContext() {
+        return english;
     }
     
     /**
@@ -0,0 +1,33 @@
+package services;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * LatencyModel - Artificial delay applied to simulated backend calls
+ *
+ * Production and benchmarks use NONE. A simulated network profile can be
+ * switched on to mimic the round trip of the original web backend.
+ */
+public interface LatencyModel {
+    LatencyModel NONE = operation -> { };
+    
+    /**
+     * Block for the time the given operation would take (e.g. "auth.signIn")
+     */
+    void await(String operation) throws InterruptedException;
+    
+    /**
+     * Fixed round trip plus uniform random jitter, in milliseconds
+     */
+    static LatencyModel simulatedNetwork(long baseMillis, long jitterMillis) {
+        if (baseMillis < 0 || jitterMillis < 0) {
+            throw new IllegalArgumentException("Latency must not be negative");
+        }
+        return operation -> {
+            long delay = baseMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+        };
+    }
+}
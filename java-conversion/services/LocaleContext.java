@@ -0,0 +1,37 @@
+package services;
+
+/**
+ * LocaleContext - The language one session is using
+ *
+ * Immutable: it holds the language's flattened message table (see
+ * LanguageService), so a session switches language by switching to another
+ * context. Each session carries its own context and passes it to whatever
+ * renders text, which keeps lookups lock-free with any number of sessions
+ * (or threads, virtual or not) using different languages at once.
+ */
+public final class LocaleContext {
+    private final String languageCode;
+    private final String[] messages;
+
+    LocaleContext(String languageCode, String[] messages) {
+        this.languageCode = languageCode;
+        this.messages = messages;
+    }
+
+    public String getLanguageCode() { return languageCode; }
+
+    /**
+     * Translation for a message id (see MessageKey) - a single array read
+     */
+    public String t(int key) {
+        return messages[key];
+    }
+
+    /**
+     * Translation for a key by name (slower; prefer the MessageKey ids)
+     */
+    public String t(String key) {
+        int id = MessageKey.idOf(key);
+        return id < 0 ? key : messages[id];
+    }
+}
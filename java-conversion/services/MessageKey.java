@@ -0,0 +1,75 @@
+package services;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MessageKey - Dense integer ids for every translatable message
+ *
+ * Ids are compile-time constants numbered from 0, so a translation is a
+ * plain index into a language's String[] (see LocaleContext.t(int)).
+ * Add new keys at the end and extend NAMES to match.
+ */
+public final class MessageKey {
+    public static final int APP_TITLE = 0;
+    public static final int APP_TAGLINE = 1;
+    public static final int AUTH_SIGNIN = 2;
+    public static final int AUTH_SIGNUP = 3;
+    public static final int AUTH_EMAIL = 4;
+    public static final int AUTH_PASSWORD = 5;
+    public static final int AUTH_FULL_NAME = 6;
+    public static final int AUTH_PHONE = 7;
+    public static final int AUTH_WELCOME = 8;
+    public static final int NAV_WALLET = 9;
+    public static final int NAV_ECOPLANNING = 10;
+    public static final int NAV_SETTINGS = 11;
+    public static final int COMMON_MENU = 12;
+    public static final int COMMON_LOADING = 13;
+    public static final int COMMON_ADD = 14;
+    public static final int COMMON_SAVE = 15;
+    public static final int COMMON_CANCEL = 16;
+
+    // Catalog name of each id, indexed by id
+    private static final String[] NAMES = {
+        "app.title",
+        "app.tagline",
+        "auth.signin",
+        "auth.signup",
+        "auth.email",
+        "auth.password",
+        "auth.fullName",
+        "auth.phone",
+        "auth.welcome",
+        "nav.wallet",
+        "nav.ecoplanning",
+        "nav.settings",
+        "common.menu",
+        "common.loading",
+        "common.add",
+        "common.save",
+        "common.cancel",
+    };
+
+    public static final int COUNT = NAMES.length;
+
+    private static final Map<String, Integer> IDS = new HashMap<>();
+    static {
+        for (int id = 0; id < NAMES.length; id++) {
+            IDS.put(NAMES[id], id);
+        }
+    }
+
+    private MessageKey() {}
+
+    public static String name(int id) {
+        return NAMES[id];
+    }
+
+    /**
+     * Id for a catalog name, or -1 if there is no such message
+     */
+    public static int idOf(String name) {
+        Integer id = IDS.get(name);
+        return id == null ? -1 : id;
+    }
+}
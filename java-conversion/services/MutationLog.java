@@ -0,0 +1,326 @@
+package services;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * MutationLog - Append-only binary log with group commit
+ *
+ * Each record is framed as [int length][int crc32][payload]. Appenders copy
+ * their record into a shared buffer and block until it is durable; a single
+ * committer thread writes whatever has accumulated and issues one fsync for
+ * the whole batch, so concurrent writers share the cost of each fsync.
+ *
+ * An optional header record (e.g. a format version) is written as the first
+ * record of every new file, so readers see it before any other record.
+ */
+public class MutationLog implements Closeable {
+    private static final int HEADER_SIZE = 8;
+    
+    private volatile Path path;
+    private volatile FileChannel channel;
+    private final long commitDelayMillis;
+    private final byte[] headerRecord;
+    private final Object lock = new Object();
+    
+    // Guarded by lock
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer writing = ByteBuffer.allocate(64 * 1024);
+    private long appendedSeq;
+    private long durableSeq;
+    private IOException failure;
+    private boolean closed;
+    private boolean rotating;
+    
+    private final Thread committer;
+    
+    /**
+     * Open (or create) the log at the given path
+     *
+     * @param commitDelayMillis how long the committer waits for more records
+     *                          before forcing a batch (0 = fsync as soon as possible)
+     */
+    public MutationLog(Path path, long commitDelayMillis) throws IOException {
+        this(path, commitDelayMillis, null);
+    }
+    
+    /**
+     * @param headerRecord payload of the record that starts every new file (null = none)
+     */
+    public MutationLog(Path path, long commitDelayMillis, byte[] headerRecord) throws IOException {
+        this.path = path;
+        this.commitDelayMillis = commitDelayMillis;
+        this.headerRecord = headerRecord;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.committer = new Thread(this::commitLoop, "finwise-log-committer");
+        this.committer.setDaemon(true);
+    }
+    
+    /**
+     * Feed every intact record to the consumer, then drop any torn or corrupt
+     * tail left by a crash and start the committer for new appends.
+     * Must be called once, before the first append.
+     */
+    public void replay(Consumer<ByteBuffer> consumer) throws IOException {
+        long size = channel.size();
+        long position = scan(channel, path, consumer);
+        if (position < size) {
+            channel.truncate(position);
+            channel.force(true);
+        }
+        if (position == 0) {
+            position = writeHeader(channel);
+        }
+        channel.position(position);
+        committer.start();
+    }
+    
+    /**
+     * Read every intact record of a closed log file (e.g. an older segment)
+     */
+    public static void read(Path path, Consumer<ByteBuffer> consumer) throws IOException {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            scan(in, path, consumer);
+        }
+    }
+    
+    /**
+     * Switch appends to a new file. Everything appended so far is made durable
+     * in the old file first; appenders wait until the switch has happened.
+     */
+    public void rotate(Path next) throws IOException {
+        FileChannel nextChannel = FileChannel.open(next, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (nextChannel.size() == 0) {
+            writeHeader(nextChannel);
+        }
+        FileChannel previous;
+        synchronized (lock) {
+            rotating = true;
+            try {
+                while (durableSeq < appendedSeq && failure == null) {
+                    awaitLock("Interrupted waiting for log rotation");
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+                nextChannel.position(nextChannel.size());
+                previous = channel;
+                channel = nextChannel;
+                path = next;
+            } catch (IOException e) {
+                nextChannel.close();
+                throw e;
+            } finally {
+                rotating = false;
+                lock.notifyAll();
+            }
+        }
+        previous.close();
+    }
+    
+    // Write the header record at the start of an empty file; returns the new end
+    private long writeHeader(FileChannel out) throws IOException {
+        if (headerRecord == null) {
+            return 0;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(headerRecord, 0, headerRecord.length);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + headerRecord.length);
+        record.putInt(headerRecord.length);
+        record.putInt((int) crc.getValue());
+        record.put(headerRecord);
+        record.flip();
+        while (record.hasRemaining()) {
+            out.write(record, record.position());
+        }
+        out.force(true);
+        return record.limit();
+    }
+    
+    private static long scan(FileChannel in, Path path, Consumer<ByteBuffer> consumer) throws IOException {
+        long size = in.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            readFully(in, path, header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length < 0 || position + HEADER_SIZE + length > size) {
+                break;
+            }
+            
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(in, path, payload, position + HEADER_SIZE);
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            
+            payload.flip();
+            consumer.accept(payload.asReadOnlyBuffer());
+            position += HEADER_SIZE + length;
+        }
+        return position;
+    }
+    
+    /**
+     * Append one record and wait until it has been fsynced
+     */
+    public void append(byte[] payload, int length) throws IOException {
+        awaitDurable(enqueue(payload, length));
+    }
+    
+    /**
+     * Append one record without waiting for it to be fsynced; pass the
+     * returned sequence number to awaitDurable. Records are written in the
+     * order they are enqueued, so awaiting the last one covers all of them.
+     */
+    public long enqueue(byte[] payload, int length) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, length);
+        
+        synchronized (lock) {
+            while (rotating) {
+                awaitLock("Interrupted waiting for log rotation");
+            }
+            if (failure != null) {
+                throw new IOException("Mutation log failed: " + path, failure);
+            }
+            if (closed) {
+                throw new IOException("Mutation log is closed: " + path);
+            }
+            ensureCapacity(HEADER_SIZE + length);
+            pending.putInt(length);
+            pending.putInt((int) crc.getValue());
+            pending.put(payload, 0, length);
+            lock.notifyAll();
+            return ++appendedSeq;
+        }
+    }
+    
+    /**
+     * Wait until every record up to this sequence number has been fsynced
+     */
+    public void awaitDurable(long seq) throws IOException {
+        synchronized (lock) {
+            while (durableSeq < seq && failure == null) {
+                awaitLock("Interrupted waiting for log commit");
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+    
+    private void commitLoop() {
+        while (true) {
+            long batchSeq;
+            synchronized (lock) {
+                while (appendedSeq == durableSeq && !closed) {
+                    waitIgnoringInterrupts(0);
+                }
+                if (appendedSeq == durableSeq) {
+                    return;
+                }
+                if (commitDelayMillis > 0 && !closed) {
+                    waitIgnoringInterrupts(commitDelayMillis);
+                }
+                
+                // Swap buffers so appenders can keep filling while we write
+                ByteBuffer batch = pending;
+                pending = writing;
+                writing = batch;
+                pending.clear();
+                batchSeq = appendedSeq;
+            }
+            
+            IOException error = null;
+            try {
+                writing.flip();
+                while (writing.hasRemaining()) {
+                    channel.write(writing);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+            
+            synchronized (lock) {
+                if (error != null) {
+                    failure = error;
+                    closed = true;
+                } else {
+                    durableSeq = batchSeq;
+                }
+                lock.notifyAll();
+                if (error != null) {
+                    return;
+                }
+            }
+        }
+    }
+    
+    private void ensureCapacity(int needed) {
+        if (pending.remaining() < needed) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + needed));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+    }
+    
+    private static void readFully(FileChannel in, Path path, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = in.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of log: " + path);
+            }
+        }
+    }
+    
+    // Wait on lock (held by the caller); an interrupt ends the wait with an exception
+    private void awaitLock(String interruptedMessage) throws InterruptedIOException {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(interruptedMessage);
+        }
+    }
+    
+    // For the committer, which only close() stops: an interrupt is ignored
+    // rather than re-set, which would make every later wait return at once
+    private void waitIgnoringInterrupts(long millis) {
+        try {
+            lock.wait(millis);
+        } catch (InterruptedException e) {
+            // keep committing
+        }
+    }
+}
@@ -0,0 +1,735 @@
+package services;
+
+import models.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * PersistenceService - Durable storage for users and their financial data
+ *
+ * Every mutation made through a registered User is encoded as a small binary
+ * record and appended to a MutationLog. Users are referred to in records by a
+ * compact handle (their registration order) instead of their id string.
+ * Registration is serialized so USER_CREATED records reach the log in
+ * handle order, and replay places each user at its recorded handle.
+ *
+ * The log is split into numbered segments. Once enough has been written, a
+ * background thread folds the closed segments into a snapshot (see
+ * SnapshotStore) and deletes them, so startup only reads the latest snapshot
+ * plus the short log tail written after it.
+ *
+ * Every segment starts with a FORMAT record carrying LOG_VERSION. Segments
+ * without one were written before it existed, when amounts could still be
+ * rupee doubles; see readPaise for how those are read.
+ */
+public class PersistenceService implements UserMutationListener, Closeable {
+    public static final long DEFAULT_SNAPSHOT_THRESHOLD = 8L * 1024 * 1024;
+    
+    private static final String SEGMENT_PREFIX = "mutations-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    
+    // Version 1 (never recorded) held amounts as rupee doubles, 2 holds paise
+    private static final int LOG_VERSION = 2;
+    private static final long LEGACY_DOUBLE_BITS = 1L << 52;
+    
+    // Record types
+    private static final byte FORMAT = 0;
+    private static final byte USER_CREATED = 1;
+    private static final byte PROFILE = 2;
+    private static final byte VALUE = 3;
+    private static final byte EXPENSE = 4;
+    private static final byte TRANSACTION = 5;
+    private static final byte BUDGET = 6;
+    private static final byte INVESTMENT = 7;
+    private static final byte BILL = 8;
+    private static final byte ACCOUNT = 9;
+    private static final byte EXTRA_INCOME = 10;
+    private static final byte TRANSFER = 11;
+    
+    private static final User.Field[] FIELDS = User.Field.values();
+    private static final User.ProfileField[] PROFILE_FIELDS = User.ProfileField.values();
+    
+    private final Path dataDir;
+    private final long commitDelayMillis;
+    private final long snapshotThresholdBytes;
+    private MutationLog log;
+    private final Map<User, Integer> handles = new IdentityHashMap<>();
+    private final List<User> usersByHandle = new ArrayList<>();
+    // Held from assigning a handle until its USER_CREATED record is durable
+    private final Object registration = new Object();
+    
+    // Segment currently being appended to, and the oldest one not yet folded into a snapshot
+    private volatile int currentSegment;
+    private volatile int snapshotSegment;
+    private final AtomicLong bytesSinceSnapshot = new AtomicLong();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "finwise-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    // Reusable per-thread encoding buffer
+    private final ThreadLocal<RecordBuffer> buffers = ThreadLocal.withInitial(RecordBuffer::new);
+    // Per-thread state of deferCommits
+    private final ThreadLocal<Deferral> deferrals = ThreadLocal.withInitial(Deferral::new);
+    
+    public PersistenceService(Path dataDir) {
+        this(dataDir, 0, DEFAULT_SNAPSHOT_THRESHOLD);
+    }
+    
+    /**
+     * @param commitDelayMillis      extra time the log waits to batch records before an fsync
+     * @param snapshotThresholdBytes log bytes written since the last snapshot that trigger a new one
+     */
+    public PersistenceService(Path dataDir, long commitDelayMillis, long snapshotThresholdBytes) {
+        this.dataDir = dataDir;
+        this.commitDelayMillis = commitDelayMillis;
+        this.snapshotThresholdBytes = snapshotThresholdBytes;
+    }
+    
+    /**
+     * Load the latest snapshot, replay the log segments written after it and
+     * return the restored users in registration order. The returned users are
+     * already attached to this service.
+     *
+     * @throws IOException if the saved data cannot be restored completely,
+     *         e.g. the latest snapshot is unreadable and the segments it
+     *         replaced are already deleted
+     */
+    public List<User> load() throws IOException {
+        return load(user -> null);
+    }
+    
+    /**
+     * As load(), giving each user the transaction store returned for it (null
+     * keeps the default) as soon as it is created, so restored transactions
+     * go straight there instead of passing through the heap
+     */
+    public List<User> load(Function<User, TransactionStore> stores) throws IOException {
+        Files.createDirectories(dataDir);
+        
+        // Latest readable snapshot; a snapshot N covers every segment below N
+        List<Integer> snapshots = listNumbered(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        List<User> users = new ArrayList<>();
+        snapshotSegment = 1;
+        IOException skipped = null;
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            try {
+                users = SnapshotStore.read(snapshotPath(snapshots.get(i)), stores);
+                snapshotSegment = snapshots.get(i);
+                break;
+            } catch (IOException e) {
+                System.out.println("Warning: skipping unreadable snapshot (" + e.getMessage() + ")");
+                skipped = e;
+            }
+        }
+        
+        // Replay the tail; the last segment stays open for appending
+        List<Integer> segments = new ArrayList<>();
+        for (int segment : listNumbered(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (segment >= snapshotSegment) {
+                segments.add(segment);
+            }
+        }
+        // Falling back to an older snapshot only works while the segments after it still exist
+        if (skipped != null && (segments.isEmpty() || segments.get(0) != snapshotSegment)) {
+            throw new IOException("Latest snapshot is unreadable and the log it replaced is gone", skipped);
+        }
+        for (int i = 1; i < segments.size(); i++) {
+            if (segments.get(i) != segments.get(0) + i) {
+                throw new IOException("Mutation log segment is missing: " + segmentPath(segments.get(0) + i));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.add(snapshotSegment);
+        }
+        List<User> replayed = users;
+        try {
+            for (int i = 0; i < segments.size() - 1; i++) {
+                Path segment = segmentPath(segments.get(i));
+                bytesSinceSnapshot.addAndGet(Files.size(segment));
+                MutationLog.read(segment, new Replay(replayed, stores, segments.get(i)));
+            }
+            currentSegment = segments.get(segments.size() - 1);
+            log = new MutationLog(segmentPath(currentSegment), commitDelayMillis, formatRecord());
+            log.replay(new Replay(replayed, stores, currentSegment));
+        } catch (IllegalStateException e) {
+            throw new IOException("Unreadable mutation log (" + e.getMessage() + ")", e);
+        }
+        requireComplete(users);
+        bytesSinceSnapshot.addAndGet(Files.size(segmentPath(currentSegment)));
+        
+        deleteObsolete(snapshotSegment);
+        synchronized (this) {
+            for (User user : users) {
+                handles.put(user, usersByHandle.size());
+                usersByHandle.add(user);
+                user.setMutationListener(this);
+            }
+        }
+        maybeSnapshot();
+        return new ArrayList<>(users);
+    }
+    
+    /**
+     * Start persisting a newly created user
+     */
+    public void register(User user) {
+        // Handles must reach the log in the order they are handed out
+        synchronized (registration) {
+            synchronized (this) {
+                if (handles.containsKey(user)) {
+                    return;
+                }
+                handles.put(user, usersByHandle.size());
+                usersByHandle.add(user);
+            }
+            
+            RecordBuffer out = begin(USER_CREATED, user);
+            out.writeString(user.getId());
+            out.writeString(user.getEmail());
+            out.writeString(user.getFullName());
+            out.writeString(user.getPasswordHash());
+            out.writeString(user.getPhone());
+            out.writeLong(user.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(user.getCreatedAt().getNano());
+            commit(out);
+        }
+        
+        user.setMutationListener(this);
+    }
+    
+    /**
+     * Check that the user's changes can be saved, before making any
+     * @throws IllegalStateException if the user was never registered
+     */
+    public void requireRegistered(User user) {
+        handleOf(user);
+    }
+    
+    /**
+     * Until commitDeferred, records written by this thread go into the log
+     * without waiting for an fsync each, so a batch of changes shares one
+     */
+    public void deferCommits() {
+        Deferral deferral = deferrals.get();
+        deferral.active = true;
+        deferral.lastSeq = 0;
+    }
+    
+    /**
+     * Wait until every record this thread wrote since deferCommits is durable
+     */
+    public void commitDeferred() {
+        Deferral deferral = deferrals.get();
+        deferral.active = false;
+        if (deferral.lastSeq == 0) {
+            return;
+        }
+        try {
+            log.awaitDurable(deferral.lastSeq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to persist change", e);
+        }
+    }
+    
+    /**
+     * Write a snapshot now (in the background) regardless of the log size
+     */
+    public Future<?> snapshotNow() {
+        if (!compacting.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return compactor.submit(this::compact);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+    
+    // ---- Snapshots ----
+    
+    private void maybeSnapshot() {
+        if (bytesSinceSnapshot.get() >= snapshotThresholdBytes) {
+            snapshotNow();
+        }
+    }
+    
+    /**
+     * Fold the previous snapshot and every closed segment into a new snapshot.
+     * Runs on the compactor thread and never touches the live User objects:
+     * the log is rotated first, then the closed segments are replayed into
+     * fresh users, so the snapshot is exactly the state at the rotation point.
+     */
+    private void compact() {
+        try {
+            int base = snapshotSegment;
+            int next = currentSegment + 1;
+            log.rotate(segmentPath(next));
+            currentSegment = next;
+            bytesSinceSnapshot.set(0);
+            
+            List<User> users = Files.exists(snapshotPath(base)) ? SnapshotStore.read(snapshotPath(base)) : new ArrayList<>();
+            for (int segment = base; segment < next; segment++) {
+                Path path = segmentPath(segment);
+                if (Files.exists(path)) {
+                    MutationLog.read(path, new Replay(users, user -> null, segment));
+                }
+            }
+            requireComplete(users);
+            SnapshotStore.write(snapshotPath(next), users);
+            snapshotSegment = next;
+            deleteObsolete(next);
+        } catch (IOException | IllegalStateException e) {
+            System.out.println("Warning: snapshot failed (" + e.getMessage() + ")");
+        } finally {
+            compacting.set(false);
+        }
+    }
+    
+    private void deleteObsolete(int snapshot) throws IOException {
+        for (int segment : listNumbered(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (segment < snapshot) {
+                Files.deleteIfExists(segmentPath(segment));
+            }
+        }
+        for (int older : listNumbered(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (older < snapshot) {
+                Files.deleteIfExists(snapshotPath(older));
+            }
+        }
+    }
+    
+    private List<Integer> listNumbered(String prefix, String suffix) throws IOException {
+        List<Integer> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dataDir, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    numbers.add(Integer.parseInt(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+    
+    private Path segmentPath(int segment) {
+        return dataDir.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+    
+    private Path snapshotPath(int segment) {
+        return dataDir.resolve(String.format("%s%06d%s", SNAPSHOT_PREFIX, segment, SNAPSHOT_SUFFIX));
+    }
+    
+    // ---- Encoding ----
+    
+    @Override
+    public void onProfileChanged(User user, User.ProfileField field, String value) {
+        RecordBuffer out = begin(PROFILE, user);
+        out.writeByte(field.ordinal());
+        out.writeString(value);
+        commit(out);
+    }
+    
+    @Override
+    public void onValueChanged(User user, User.Field field, long paise) {
+        RecordBuffer out = begin(VALUE, user);
+        out.writeByte(field.ordinal());
+        out.writeLong(paise);
+        commit(out);
+    }
+    
+    @Override
+    public void onExpenseAdded(User user, Expense expense) {
+        RecordBuffer out = begin(EXPENSE, user);
+        out.writeString(expense.getDescription());
+        out.writeLong(expense.getAmountPaise());
+        out.writeString(expense.getCategory());
+        out.writeDate(expense.getDate());
+        out.writeLong(expense.getId());
+        commit(out);
+    }
+    
+    @Override
+    public void onTransactionAdded(User user, Transaction transaction) {
+        RecordBuffer out = begin(TRANSACTION, user);
+        writeTransaction(out, transaction);
+        commit(out);
+    }
+    
+    @Override
+    public void onBudgetAdded(User user, Budget budget) {
+        RecordBuffer out = begin(BUDGET, user);
+        out.writeString(budget.getCategory());
+        out.writeLong(budget.getLimitPaise());
+        out.writeLong(budget.getId());
+        commit(out);
+    }
+    
+    @Override
+    public void onInvestmentAdded(User user, Investment investment) {
+        RecordBuffer out = begin(INVESTMENT, user);
+        out.writeString(investment.getName());
+        out.writeLong(investment.getInitialPaise());
+        out.writeLong(investment.getCurrentPaise());
+        out.writeString(investment.getType());
+        out.writeDate(investment.getPurchaseDate());
+        out.writeLong(investment.getId());
+        commit(out);
+    }
+    
+    @Override
+    public void onBillAdded(User user, Bill bill) {
+        RecordBuffer out = begin(BILL, user);
+        out.writeString(bill.getName());
+        out.writeLong(bill.getAmountPaise());
+        out.writeInt(bill.getDueDay());
+        out.writeLong(bill.getId());
+        commit(out);
+    }
+    
+    @Override
+    public void onAccountAdded(User user, Account account) {
+        RecordBuffer out = begin(ACCOUNT, user);
+        out.writeString(account.getName());
+        out.writeString(account.getAccountNumber());
+        out.writeString(account.getBankName());
+        out.writeLong(account.getBalancePaise());
+        out.writeString(account.getType());
+        out.writeLong(account.getId());
+        commit(out);
+    }
+    
+    @Override
+    public void onExtraIncomeAdded(User user, ExtraIncome income) {
+        RecordBuffer out = begin(EXTRA_INCOME, user);
+        out.writeString(Long.toString(income.getId()));
+        out.writeString(income.getDescription());
+        out.writeLong(income.getAmountPaise());
+        out.writeString(income.getPeriod());
+        out.writeDate(income.getDate());
+        commit(out);
+    }
+    
+    // Both sides of a wallet transfer in one record, so replay applies both or neither
+    @Override
+    public void onWalletTransfer(User payer, User payee, Transaction debit, Transaction credit) {
+        RecordBuffer out = begin(TRANSFER, payer);
+        out.writeInt(handleOf(payee));
+        out.writeLong(payer.getWalletBalancePaise());
+        writeTransaction(out, debit);
+        out.writeLong(payee.getWalletBalancePaise());
+        writeTransaction(out, credit);
+        commit(out);
+    }
+    
+    private static void writeTransaction(RecordBuffer out, Transaction transaction) {
+        out.writeString(transaction.getDescription());
+        out.writeLong(transaction.getAmountPaise());
+        out.writeString(transaction.getType());
+        out.writeString(transaction.getTransactionType());
+        out.writeDate(transaction.getDate());
+        out.writeLong(transaction.getId());
+    }
+    
+    private RecordBuffer begin(byte type, User user) {
+        int handle = handleOf(user);
+        RecordBuffer out = buffers.get();
+        out.reset();
+        out.writeByte(type);
+        out.writeInt(handle);
+        return out;
+    }
+    
+    private int handleOf(User user) {
+        Integer handle;
+        synchronized (this) {
+            handle = handles.get(user);
+        }
+        if (handle == null) {
+            throw new IllegalStateException("User is not registered for persistence: " + user.getEmail());
+        }
+        return handle;
+    }
+    
+    private void commit(RecordBuffer out) {
+        try {
+            Deferral deferral = deferrals.get();
+            if (deferral.active) {
+                deferral.lastSeq = log.enqueue(out.array(), out.size());
+            } else {
+                log.append(out.array(), out.size());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to persist change", e);
+        }
+        if (bytesSinceSnapshot.addAndGet(out.size() + 8) >= snapshotThresholdBytes) {
+            maybeSnapshot();
+        }
+    }
+    
+    private static byte[] formatRecord() {
+        return ByteBuffer.allocate(5).put(FORMAT).putInt(LOG_VERSION).array();
+    }
+    
+    // ---- Replay ----
+    
+    /**
+     * Applies the records of one segment, in the format its FORMAT record names
+     */
+    private static class Replay implements Consumer<ByteBuffer> {
+        private final List<User> users;
+        private final Function<User, TransactionStore> stores;
+        private final int segment;
+        private long records;
+        private boolean unversioned = true;
+        
+        Replay(List<User> users, Function<User, TransactionStore> stores, int segment) {
+            this.users = users;
+            this.stores = stores;
+            this.segment = segment;
+        }
+        
+        @Override
+        public void accept(ByteBuffer record) {
+            long position = logPosition(segment, records++);
+            if (record.get(0) != FORMAT) {
+                apply(record, users, stores, unversioned, position);
+                return;
+            }
+            record.get();
+            int version = record.getInt();
+            if (version != LOG_VERSION) {
+                throw new IllegalStateException("log format version " + version
+                    + " is not supported by this version of FinWise (expected " + LOG_VERSION + ")");
+            }
+            unversioned = false;
+        }
+    }
+    
+    // position: where the record sits in the log, for ids of records saved without one
+    private static void apply(ByteBuffer in, List<User> users, Function<User, TransactionStore> stores, boolean unversioned, long position) {
+        byte type = in.get();
+        int handle = in.getInt();
+        
+        if (type == USER_CREATED) {
+            String id = readString(in);
+            String email = readString(in);
+            String fullName = readString(in);
+            String passwordHash = readString(in);
+            String phone = readString(in);
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+            
+            User user = new User(id, email, fullName, passwordHash, createdAt);
+            TransactionStore store = stores.apply(user);
+            if (store != null) {
+                user.setTransactionStore(store);
+            }
+            user.restoreProfile(User.ProfileField.PHONE, phone);
+            // Older logs could hold concurrent sign-ups out of handle order
+            while (users.size() <= handle) {
+                users.add(null);
+            }
+            users.set(handle, user);
+            return;
+        }
+        
+        User user = userAt(users, handle);
+        switch (type) {
+            case PROFILE:
+                user.restoreProfile(PROFILE_FIELDS[in.get()], readString(in));
+                break;
+            case VALUE:
+                user.restoreValue(FIELDS[in.get()], readPaise(in, unversioned));
+                break;
+            case EXPENSE: {
+                String description = readString(in);
+                long amount = readPaise(in, unversioned);
+                String category = readString(in);
+                LocalDate date = readDate(in);
+                user.restoreExpense(Expense.ofPaise(readId(in, position), description, amount, category, date));
+                break;
+            }
+            case TRANSACTION:
+                user.restoreTransaction(readTransaction(in, unversioned, position));
+                break;
+            case BUDGET: {
+                String category = readString(in);
+                long limit = readPaise(in, unversioned);
+                user.restoreBudget(Budget.ofPaise(readId(in, position), category, limit));
+                break;
+            }
+            case INVESTMENT: {
+                String name = readString(in);
+                long initial = readPaise(in, unversioned);
+                long current = readPaise(in, unversioned);
+                String kind = readString(in);
+                LocalDate date = readDate(in);
+                user.restoreInvestment(Investment.ofPaise(readId(in, position), name, initial, current, kind, date));
+                break;
+            }
+            case BILL: {
+                String name = readString(in);
+                long amount = readPaise(in, unversioned);
+                int dueDay = Bill.clampDueDay(in.getInt());
+                user.restoreBill(Bill.ofPaise(readId(in, position), name, amount, dueDay));
+                break;
+            }
+            case ACCOUNT: {
+                String name = readString(in);
+                String number = readString(in);
+                String bank = readString(in);
+                long balance = readPaise(in, unversioned);
+                String kind = readString(in);
+                user.restoreAccount(Account.ofPaise(readId(in, position), name, number, bank, balance, kind));
+                break;
+            }
+            case EXTRA_INCOME:
+                user.restoreExtraIncome(ExtraIncome.ofPaise(IdGenerator.fromLegacy(readString(in)), readString(in), readPaise(in, unversioned), readString(in), readDate(in)));
+                break;
+            case TRANSFER: {
+                User payee = userAt(users, in.getInt());
+                user.restoreValue(User.Field.WALLET_BALANCE, readPaise(in, unversioned));
+                user.restoreTransaction(readTransaction(in, unversioned, position));
+                payee.restoreValue(User.Field.WALLET_BALANCE, readPaise(in, unversioned));
+                payee.restoreTransaction(readTransaction(in, unversioned, position + 1));
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unknown log record type: " + type);
+        }
+    }
+    
+    private static User userAt(List<User> users, int handle) {
+        User user = handle >= 0 && handle < users.size() ? users.get(handle) : null;
+        if (user == null) {
+            throw new IllegalStateException("record for unknown user handle " + handle);
+        }
+        return user;
+    }
+    
+    private static Transaction readTransaction(ByteBuffer in, boolean unversioned, long position) {
+        String description = readString(in);
+        long amount = readPaise(in, unversioned);
+        String kind = readString(in);
+        String direction = readString(in);
+        LocalDate date = readDate(in);
+        return Transaction.ofPaise(readId(in, position), description, amount, kind, direction, date);
+    }
+    
+    // Every handle up to the last one must have had its USER_CREATED record
+    private static void requireComplete(List<User> users) throws IOException {
+        int missing = users.indexOf(null);
+        if (missing >= 0) {
+            throw new IOException("Mutation log has no record creating user handle " + missing);
+        }
+    }
+    
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Amounts are paise. An unversioned segment may also hold rupee doubles
+     * from before that change; any nonzero double has a bit pattern of at
+     * least 2^52 in magnitude, far beyond a real paise amount (and zero is the
+     * same either way), so there each amount is decoded by its size.
+     */
+    private static long readPaise(ByteBuffer in, boolean unversioned) {
+        long value = in.getLong();
+        if (unversioned && (value >= LEGACY_DOUBLE_BITS || value <= -LEGACY_DOUBLE_BITS)) {
+            return Money.ofRupees(Double.longBitsToDouble(value));
+        }
+        return value;
+    }
+    
+    private static LocalDate readDate(ByteBuffer in) {
+        return LocalDate.ofEpochDay(in.getInt());
+    }
+    
+    // Records written before ids were added end without one
+    // Records logged before records had ids get one derived from their log position
+    private static long readId(ByteBuffer in, long position) {
+        return in.remaining() >= 8 ? in.getLong() : IdGenerator.fromPosition(position);
+    }
+    
+    // Two ids per record (a transfer holds two transactions), so the lowest bit
+    // is free; stays below 2^61, where SnapshotStore positions start
+    private static long logPosition(int segment, long record) {
+        return ((long) segment << 33) | (record << 1);
+    }
+    
+    private static class Deferral {
+        boolean active;
+        long lastSeq; // last record enqueued while active, 0 if none
+    }
+    
+    /**
+     * Growable byte buffer with the primitive writers used by the record format
+     */
+    private static class RecordBuffer extends ByteArrayOutputStream {
+        RecordBuffer() {
+            super(256);
+        }
+        
+        byte[] array() { return buf; }
+        
+        void writeByte(int value) { write(value); }
+        
+        void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+        
+        void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+        
+        void writeDate(LocalDate date) {
+            writeInt((int) date.toEpochDay());
+        }
+        
+        void writeString(String value) {
+            if (value == null) {
+                writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+    }
+}
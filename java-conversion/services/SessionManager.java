@@ -0,0 +1,112 @@
+package services;
+
+import models.User;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * SessionManager - Issues session tokens and tracks signed-in users
+ *
+ * Sessions live in a ConcurrentHashMap keyed by an unguessable token, so
+ * any number of users can be signed in at once without sharing state or
+ * contending on a lock. A session expires after a period of inactivity;
+ * expired sessions are dropped when next used and by a periodic sweep.
+ */
+public class SessionManager {
+    public static final long DEFAULT_IDLE_TIMEOUT_MINUTES = 30;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final long idleTimeoutNanos;
+    private final SecureRandom random = new SecureRandom();
+    private final ScheduledExecutorService sweeper;
+
+    public SessionManager(long idleTimeout, TimeUnit unit) {
+        this.idleTimeoutNanos = unit.toNanos(idleTimeout);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "finwise-session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, unit.toSeconds(idleTimeout) / 2);
+        sweeper.scheduleAtFixedRate(this::evictExpired, period, period, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Start a new session for the user and return its token
+     */
+    public String open(User user) {
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(user));
+        return token;
+    }
+
+    /**
+     * The user signed in with this token, or null if the token is unknown or
+     * has expired. A successful lookup counts as activity.
+     */
+    public User getUser(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - session.lastAccess > idleTimeoutNanos) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.lastAccess = now;
+        return session.user;
+    }
+
+    /**
+     * The language chosen for this session, or null if the token is unknown
+     */
+    public LocaleContext getLocale(String token) {
+        Session session = token == null ? null : sessions.get(token);
+        return session == null ? null : session.locale;
+    }
+    
+    public void setLocale(String token, LocaleContext locale) {
+        Session session = token == null ? null : sessions.get(token);
+        if (session != null && locale != null) {
+            session.locale = locale;
+        }
+    }
+    
+    public void close(String token) {
+        if (token != null) {
+            sessions.remove(token);
+        }
+    }
+
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        sessions.entrySet().removeIf(entry -> now - entry.getValue().lastAccess > idleTimeoutNanos);
+    }
+
+    /**
+     * One signed-in user
+     */
+    private static class Session {
+        private final User user;
+        private volatile long lastAccess;
+        private volatile LocaleContext locale;
+
+        Session(User user) {
+            this.user = user;
+            this.lastAccess = System.nanoTime();
+            this.locale = LanguageService.getInstance().getDefaultContext();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package services;
+
+import models.Transaction;
+import models.User;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * SettlementService - Settles payments between FinWise users
+ *
+ * A payment names its recipient by email or phone; the recipient is looked
+ * up through AuthService and the payment is queued for settlement, which
+ * posts the sender's debit and the recipient's credit together (see
+ * WalletService.transfer) and saves them as one log record - money leaves
+ * one wallet only by arriving in another, even across a crash.
+ *
+ * Queued payments sit in a ring buffer of preallocated slots (LMAX
+ * Disruptor style): a sender claims the next sequence number with one
+ * atomic increment, fills that slot and publishes it. A single writer
+ * thread settles every published slot in sequence order, as many as are
+ * ready in one batch, and then frees them; senders only wait when the
+ * ring is full. Payments therefore settle in exactly the order they were
+ * queued, without senders contending on wallet locks. A batch's log
+ * records share one fsync, and its payments complete once that is done.
+ * An idle writer parks until a sender publishes and wakes it.
+ */
+public class SettlementService {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    // One queued payment; slots are reused once the writer has moved past them
+    private static final class Slot {
+        User from;
+        User to;
+        long paise;
+        String debitDescription;
+        String creditDescription;
+        String type;
+        CompletableFuture<Transaction> result;
+        Transaction settled;
+        RuntimeException error;
+    }
+
+    private final AuthService auth;
+    private final WalletService wallet;
+    private final PersistenceService persistence; // null when nothing is saved
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLongArray published; // sequence last published in each slot
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long settled; // every sequence below this is settled and its slot free
+    private volatile boolean writerIdle;
+    private final Thread writer;
+
+    public SettlementService(AuthService auth, WalletService wallet, int capacity) {
+        this(auth, auth.getPersistence(), wallet, capacity);
+    }
+
+    // Settle against this persistence directly (tests; auth is only needed by send)
+    SettlementService(AuthService auth, PersistenceService persistence, WalletService wallet, int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.auth = auth;
+        this.wallet = wallet;
+        this.persistence = persistence;
+        this.slots = new Slot[size];
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            published.set(i, -1);
+        }
+        this.writer = new Thread(this::settleLoop, "finwise-settlement");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Lazy, thread-safe initialization: the holder class loads on first getInstance()
+    private static class Holder {
+        private static final SettlementService INSTANCE =
+            new SettlementService(AuthService.getInstance(), WalletService.getInstance(), DEFAULT_CAPACITY);
+    }
+
+    public static SettlementService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * The FinWise user with this email or phone number, or null
+     */
+    public User findRecipient(String emailOrPhone) {
+        if (emailOrPhone == null) {
+            return null;
+        }
+        String recipient = emailOrPhone.trim();
+        return recipient.contains("@") ? auth.findUserByEmail(recipient) : auth.findUserByPhone(recipient);
+    }
+
+    /**
+     * Queue a payment to the FinWise user with this email or phone number.
+     * The description on both sides is type plus " to "/" from " the other
+     * party, followed by the note if there is one.
+     *
+     * @return completes with the sender's transaction once settled, or with
+     *         null if their balance did not cover the amount
+     * @throws Exception if there is no such user or the amount is invalid
+     */
+    public CompletableFuture<Transaction> send(User from, String recipient, long paise, String type, String note)
+            throws Exception {
+        if (paise <= 0) {
+            throw new Exception("Amount must be greater than zero.");
+        }
+        User to = findRecipient(recipient);
+        if (to == null) {
+            throw new Exception("No FinWise user found for " + recipient + ".");
+        }
+        if (to == from) {
+            throw new Exception("You cannot send money to yourself.");
+        }
+        String suffix = note == null || note.isEmpty() ? "" : " - " + note;
+        return submit(from, to, paise,
+            type + " to " + recipient.trim() + suffix,
+            type + " from " + from.getFullName() + suffix, type);
+    }
+
+    /**
+     * Queue a transfer between two known users
+     * @return as for send
+     */
+    public CompletableFuture<Transaction> submit(User from, User to, long paise, String debitDescription,
+                                                 String creditDescription, String type) {
+        CompletableFuture<Transaction> result = new CompletableFuture<>();
+        long sequence = claimed.getAndIncrement();
+        // Wait for the writer to free the slot this sequence wraps onto
+        while (sequence - settled >= slots.length) {
+            LockSupport.parkNanos(1000);
+        }
+        Slot slot = slots[(int) sequence & mask];
+        slot.from = from;
+        slot.to = to;
+        slot.paise = paise;
+        slot.debitDescription = debitDescription;
+        slot.creditDescription = creditDescription;
+        slot.type = type;
+        slot.result = result;
+        published.set((int) sequence & mask, sequence);
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+        return result;
+    }
+
+    /**
+     * Payments queued but not yet settled
+     */
+    public long getPendingCount() {
+        return claimed.get() - settled;
+    }
+
+    private void settleLoop() {
+        long next = 0;
+        while (true) {
+            // The batch is every consecutive published sequence from next on
+            long end = next;
+            while (end - next < slots.length && published.get((int) end & mask) == end) {
+                end++;
+            }
+            if (end == next) {
+                // Senders unpark the writer after publishing if they see it idle
+                writerIdle = true;
+                if (published.get((int) next & mask) != next) {
+                    LockSupport.park(this);
+                }
+                writerIdle = false;
+                continue;
+            }
+
+            // Settle the batch, wait once for its log records, then report it
+            RuntimeException failure = null;
+            if (persistence != null) {
+                persistence.deferCommits();
+            }
+            for (long sequence = next; sequence < end; sequence++) {
+                settle(slots[(int) sequence & mask]);
+            }
+            if (persistence != null) {
+                try {
+                    persistence.commitDeferred();
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+            for (long sequence = next; sequence < end; sequence++) {
+                complete(slots[(int) sequence & mask], failure);
+            }
+            settled = end;
+            next = end;
+        }
+    }
+
+    // Both users must be saved before either wallet changes, or the transfer could not be logged
+    private void settle(Slot slot) {
+        try {
+            if (persistence != null) {
+                persistence.requireRegistered(slot.from);
+                persistence.requireRegistered(slot.to);
+            }
+            slot.settled = wallet.transfer(slot.from, slot.to, slot.paise,
+                slot.debitDescription, slot.creditDescription, slot.type);
+        } catch (RuntimeException e) {
+            slot.error = e;
+        }
+    }
+
+    // Report a settled slot once its batch is durable (or failed to be saved)
+    private void complete(Slot slot, RuntimeException failure) {
+        CompletableFuture<Transaction> result = slot.result;
+        RuntimeException error = slot.error != null ? slot.error : failure;
+        if (error != null) {
+            result.completeExceptionally(error);
+        } else {
+            result.complete(slot.settled);
+        }
+        // Drop references so a settled slot does not keep users or results alive
+        slot.from = null;
+        slot.to = null;
+        slot.result = null;
+        slot.settled = null;
+        slot.error = null;
+    }
+}
@@ -0,0 +1,394 @@
+package services;
+
+import models.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * SnapshotStore - Compact binary snapshot of every user and their data
+ *
+ * Collections are written column by column (all descriptions, then all
+ * amounts, then all dates, ...) so each column is a tight run of one type.
+ * Low-cardinality text columns such as categories and transaction types are
+ * dictionary-encoded. The file ends with a CRC32 of its contents and is
+ * written to a temporary file first, so a snapshot is either complete or ignored.
+ */
+public class SnapshotStore {
+    private static final int MAGIC = 0x46575350; // "FWSP"
+    private static final int VERSION = 3;
+    // Oldest version read; version 2 snapshots have no record ids
+    private static final int MIN_VERSION = 2;
+    
+    private static final User.Field[] FIELDS = User.Field.values();
+    
+    private SnapshotStore() {}
+    
+    /**
+     * Write users (in persistence handle order) to the given file atomically
+     */
+    public static void write(Path file, List<User> users) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile())) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(fileOut, crc), 64 * 1024));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(users.size());
+            for (User user : users) {
+                writeUser(out, user);
+            }
+            out.flush();
+            new DataOutputStream(fileOut).writeInt((int) crc.getValue());
+            fileOut.getFD().sync();
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    /**
+     * Read a snapshot written by {@link #write}; fails if the file is incomplete or corrupt
+     */
+    public static List<User> read(Path file) throws IOException {
+        return read(file, user -> null);
+    }
+    
+    /**
+     * As read(file), giving each user the transaction store returned for it
+     * (null keeps the default) before their transactions are loaded
+     */
+    public static List<User> read(Path file, Function<User, TransactionStore> stores) throws IOException {
+        long length = Files.size(file);
+        if (length < 4) {
+            throw new IOException("Snapshot is truncated: " + file);
+        }
+        CRC32 crc = new CRC32();
+        List<User> users = new ArrayList<>();
+        
+        try (InputStream fileIn = Files.newInputStream(file)) {
+            LimitedInputStream body = new LimitedInputStream(fileIn, length - 4);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new CheckedInputStream(body, crc), 64 * 1024));
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a FinWise snapshot: " + file);
+            }
+            int version = in.readInt();
+            if (version < MIN_VERSION || version > VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                users.add(readUser(in, version, stores, i));
+            }
+            if (in.read() != -1) {
+                throw new IOException("Unexpected data at end of snapshot: " + file);
+            }
+            int expected = new DataInputStream(fileIn).readInt();
+            if (expected != (int) crc.getValue()) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+        }
+        return users;
+    }
+    
+    private static void writeUser(DataOutputStream out, User user) throws IOException {
+        writeString(out, user.getId());
+        writeString(out, user.getEmail());
+        writeString(out, user.getFullName());
+        writeString(out, user.getPasswordHash());
+        writeString(out, user.getPhone());
+        out.writeLong(user.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(user.getCreatedAt().getNano());
+        
+        for (User.Field field : FIELDS) {
+            out.writeLong(user.getValuePaise(field));
+        }
+        
+        // Expenses
+        List<Expense> expenses = user.getAllExpenses();
+        out.writeInt(expenses.size());
+        for (Expense e : expenses) out.writeLong(e.getId());
+        for (Expense e : expenses) writeString(out, e.getDescription());
+        for (Expense e : expenses) out.writeLong(e.getAmountPaise());
+        writeDictionary(out, expenses, Expense::getCategory);
+        for (Expense e : expenses) out.writeInt((int) e.getDate().toEpochDay());
+        
+        // Transactions
+        List<Transaction> transactions = user.getAllTransactions();
+        out.writeInt(transactions.size());
+        for (Transaction t : transactions) out.writeLong(t.getId());
+        for (Transaction t : transactions) writeString(out, t.getDescription());
+        for (Transaction t : transactions) out.writeLong(t.getAmountPaise());
+        writeDictionary(out, transactions, Transaction::getType);
+        writeDictionary(out, transactions, Transaction::getTransactionType);
+        for (Transaction t : transactions) out.writeInt((int) t.getDate().toEpochDay());
+        
+        // Budgets
+        List<Budget> budgets = user.getAllBudgets();
+        out.writeInt(budgets.size());
+        for (Budget b : budgets) out.writeLong(b.getId());
+        for (Budget b : budgets) writeString(out, b.getCategory());
+        for (Budget b : budgets) out.writeLong(b.getLimitPaise());
+        
+        // Investments
+        List<Investment> investments = user.getAllInvestments();
+        out.writeInt(investments.size());
+        for (Investment inv : investments) out.writeLong(inv.getId());
+        for (Investment inv : investments) writeString(out, inv.getName());
+        for (Investment inv : investments) out.writeLong(inv.getInitialPaise());
+        for (Investment inv : investments) out.writeLong(inv.getCurrentPaise());
+        writeDictionary(out, investments, Investment::getType);
+        for (Investment inv : investments) out.writeInt((int) inv.getPurchaseDate().toEpochDay());
+        
+        // Bills
+        List<Bill> bills = user.getAllBills();
+        out.writeInt(bills.size());
+        for (Bill b : bills) out.writeLong(b.getId());
+        for (Bill b : bills) writeString(out, b.getName());
+        for (Bill b : bills) out.writeLong(b.getAmountPaise());
+        for (Bill b : bills) out.writeInt(b.getDueDay());
+        
+        // Accounts
+        List<Account> accounts = user.getAllAccounts();
+        out.writeInt(accounts.size());
+        for (Account a : accounts) out.writeLong(a.getId());
+        for (Account a : accounts) writeString(out, a.getName());
+        for (Account a : accounts) writeString(out, a.getAccountNumber());
+        writeDictionary(out, accounts, Account::getBankName);
+        for (Account a : accounts) out.writeLong(a.getBalancePaise());
+        writeDictionary(out, accounts, Account::getType);
+        
+        // Extra incomes
+        List<ExtraIncome> incomes = user.getAllExtraIncomes();
+        out.writeInt(incomes.size());
+        for (ExtraIncome inc : incomes) out.writeLong(inc.getId());
+        for (ExtraIncome inc : incomes) writeString(out, inc.getDescription());
+        for (ExtraIncome inc : incomes) out.writeLong(inc.getAmountPaise());
+        writeDictionary(out, incomes, ExtraIncome::getPeriod);
+        for (ExtraIncome inc : incomes) out.writeInt((int) inc.getDate().toEpochDay());
+    }
+    
+    // index: the user's place in the snapshot, for ids of records saved without one
+    private static User readUser(DataInputStream in, int version, Function<User, TransactionStore> stores, int index) throws IOException {
+        String id = readString(in);
+        String email = readString(in);
+        String fullName = readString(in);
+        String passwordHash = readString(in);
+        String phone = readString(in);
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        
+        User user = new User(id, email, fullName, passwordHash, createdAt);
+        TransactionStore store = stores.apply(user);
+        if (store != null) {
+            user.setTransactionStore(store);
+        }
+        user.restoreProfile(User.ProfileField.PHONE, phone);
+        for (User.Field field : FIELDS) {
+            user.restoreValue(field, in.readLong());
+        }
+        
+        // Expenses
+        int n = in.readInt();
+        long[] ids = readIds(in, n, version, position(index, 0));
+        String[] descriptions = readStrings(in, n);
+        long[] amounts = readAmounts(in, n);
+        String[] categories = readDictionary(in, n);
+        for (int i = 0; i < n; i++) {
+            user.restoreExpense(Expense.ofPaise(ids[i], descriptions[i], amounts[i], categories[i], LocalDate.ofEpochDay(in.readInt())));
+        }
+        
+        // Transactions
+        n = in.readInt();
+        ids = readIds(in, n, version, position(index, 1));
+        descriptions = readStrings(in, n);
+        amounts = readAmounts(in, n);
+        String[] types = readDictionary(in, n);
+        String[] directions = readDictionary(in, n);
+        for (int i = 0; i < n; i++) {
+            user.restoreTransaction(Transaction.ofPaise(ids[i], descriptions[i], amounts[i], types[i], directions[i], LocalDate.ofEpochDay(in.readInt())));
+        }
+        
+        // Budgets
+        n = in.readInt();
+        ids = readIds(in, n, version, position(index, 2));
+        categories = readStrings(in, n);
+        amounts = readAmounts(in, n);
+        for (int i = 0; i < n; i++) {
+            user.restoreBudget(Budget.ofPaise(ids[i], categories[i], amounts[i]));
+        }
+        
+        // Investments
+        n = in.readInt();
+        ids = readIds(in, n, version, position(index, 3));
+        String[] names = readStrings(in, n);
+        long[] initial = readAmounts(in, n);
+        long[] current = readAmounts(in, n);
+        types = readDictionary(in, n);
+        for (int i = 0; i < n; i++) {
+            user.restoreInvestment(Investment.ofPaise(ids[i], names[i], initial[i], current[i], types[i], LocalDate.ofEpochDay(in.readInt())));
+        }
+        
+        // Bills
+        n = in.readInt();
+        ids = readIds(in, n, version, position(index, 4));
+        names = readStrings(in, n);
+        amounts = readAmounts(in, n);
+        for (int i = 0; i < n; i++) {
+            user.restoreBill(Bill.ofPaise(ids[i], names[i], amounts[i], Bill.clampDueDay(in.readInt())));
+        }
+        
+        // Accounts
+        n = in.readInt();
+        ids = readIds(in, n, version, position(index, 5));
+        names = readStrings(in, n);
+        String[] numbers = readStrings(in, n);
+        String[] banks = readDictionary(in, n);
+        amounts = readAmounts(in, n);
+        types = readDictionary(in, n);
+        for (int i = 0; i < n; i++) {
+            user.restoreAccount(Account.ofPaise(ids[i], names[i], numbers[i], banks[i], amounts[i], types[i]));
+        }
+        
+        // Extra incomes
+        n = in.readInt();
+        ids = readIncomeIds(in, n, version);
+        descriptions = readStrings(in, n);
+        amounts = readAmounts(in, n);
+        String[] periods = readDictionary(in, n);
+        for (int i = 0; i < n; i++) {
+            user.restoreExtraIncome(ExtraIncome.ofPaise(ids[i], descriptions[i], amounts[i], periods[i], LocalDate.ofEpochDay(in.readInt())));
+        }
+        
+        return user;
+    }
+    
+    // Dictionary column: distinct values once, then one small code per row
+    private static <T> void writeDictionary(DataOutputStream out, List<T> rows, Function<T, String> column) throws IOException {
+        Map<String, Integer> codes = new LinkedHashMap<>();
+        int[] rowCodes = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            rowCodes[i] = codes.computeIfAbsent(column.apply(rows.get(i)), k -> codes.size());
+        }
+        out.writeInt(codes.size());
+        for (String value : codes.keySet()) {
+            writeString(out, value);
+        }
+        for (int code : rowCodes) {
+            if (codes.size() <= 256) out.writeByte(code); else out.writeInt(code);
+        }
+    }
+    
+    private static String[] readDictionary(DataInputStream in, int rows) throws IOException {
+        String[] dictionary = readStrings(in, in.readInt());
+        String[] values = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            int code = dictionary.length <= 256 ? in.readUnsignedByte() : in.readInt();
+            values[i] = dictionary[code];
+        }
+        return values;
+    }
+    
+    private static String[] readStrings(DataInputStream in, int count) throws IOException {
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = readString(in);
+        }
+        return values;
+    }
+    
+    // Record ids, or for a snapshot written before records had ids, ones
+    // derived from each record's place in it (the same on every load)
+    private static long[] readIds(DataInputStream in, int count, int version, long position) throws IOException {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = version >= 3 ? in.readLong() : IdGenerator.fromPosition(position + i);
+        }
+        return ids;
+    }
+    
+    // Where row 0 of a user's collection sits; above the log positions
+    // PersistenceService derives ids from, which stay below 2^61
+    private static long position(int user, int collection) {
+        return (1L << 61) | ((long) user << 36) | ((long) collection << 32);
+    }
+    
+    // Extra incomes had text ids before version 3
+    private static long[] readIncomeIds(DataInputStream in, int count, int version) throws IOException {
+        if (version >= 3) {
+            return readIds(in, count, version, 0);
+        }
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = IdGenerator.fromLegacy(readString(in));
+        }
+        return ids;
+    }
+    
+    private static long[] readAmounts(DataInputStream in, int count) throws IOException {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readLong();
+        }
+        return values;
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Stops reading at a fixed length so the trailing checksum stays unread
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+        
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int b = super.read();
+            if (b >= 0) remaining--;
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) return -1;
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) remaining -= n;
+            return n;
+        }
+        
+        @Override
+        public void close() {
+            // The underlying stream is closed by the caller
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package services;
+
+import models.IdGenerator;
+import models.Today;
+import models.Transaction;
+import models.User;
+import java.time.LocalDate;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * WalletService - Atomic wallet deposits, withdrawals and transfers
+ *
+ * Each user's wallet is guarded by one of a fixed set of striped locks, so
+ * the balance check, the new balance, its transaction record and the
+ * persisted change happen as one step and two concurrent payments can never
+ * both spend the same money. A transfer holds both users' stripes, always
+ * taken in stripe order, so opposite transfers between two users cannot
+ * deadlock. Users on different stripes never wait for each other.
+ *
+ * Every wallet change must go through here to be atomic. The transaction
+ * records themselves are filed under each user's own ledger lock (see
+ * User.restoreTransaction), so crediting a payee is safe while the payee's
+ * session adds transactions of its own.
+ */
+public class WalletService {
+    public static final int DEFAULT_STRIPES = 256;
+
+    private final ReentrantLock[] stripes;
+
+    public WalletService(int stripes) {
+        int count = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // Lazy, thread-safe initialization: the holder class loads on first getInstance()
+    private static class Holder {
+        private static final WalletService INSTANCE = new WalletService(DEFAULT_STRIPES);
+    }
+
+    public static WalletService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Add money to the user's wallet
+     * @return the recorded transaction
+     */
+    public Transaction deposit(User user, long paise, String description, String type) {
+        requirePositive(paise);
+        Transaction transaction = Transaction.ofPaise(IdGenerator.next(), description, paise, type, "receive", Today.date());
+        ReentrantLock lock = stripe(user);
+        lock.lock();
+        try {
+            user.creditWallet(paise, transaction);
+        } finally {
+            lock.unlock();
+        }
+        return transaction;
+    }
+
+    /**
+     * Pay out of the user's wallet
+     * @return the recorded transaction, or null if the balance does not cover the amount
+     */
+    public Transaction withdraw(User user, long paise, String description, String type) {
+        requirePositive(paise);
+        Transaction transaction = Transaction.ofPaise(IdGenerator.next(), description, -paise, type, "send", Today.date());
+        ReentrantLock lock = stripe(user);
+        lock.lock();
+        try {
+            return user.debitWallet(paise, transaction) ? transaction : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Move money from one user's wallet to another's: both sides or neither
+     * @return the sender's transaction, or null if their balance does not cover the amount
+     */
+    public Transaction transfer(User from, User to, long paise, String debitDescription,
+                                String creditDescription, String type) {
+        requirePositive(paise);
+        if (from == to) {
+            throw new IllegalArgumentException("Cannot transfer to the same wallet");
+        }
+        LocalDate today = Today.date();
+        Transaction debit = Transaction.ofPaise(IdGenerator.next(), debitDescription, -paise, type, "send", today);
+        Transaction credit = Transaction.ofPaise(IdGenerator.next(), creditDescription, paise, type, "receive", today);
+
+        ReentrantLock first = stripe(from);
+        ReentrantLock second = stripe(to);
+        if (indexOf(from) > indexOf(to)) {
+            ReentrantLock swap = first;
+            first = second;
+            second = swap;
+        }
+        first.lock();
+        try {
+            if (second != first) {
+                second.lock();
+            }
+            try {
+                return from.transferWallet(to, paise, debit, credit) ? debit : null;
+            } finally {
+                if (second != first) {
+                    second.unlock();
+                }
+            }
+        } finally {
+            first.unlock();
+        }
+    }
+
+    private ReentrantLock stripe(User user) {
+        return stripes[indexOf(user)];
+    }
+
+    private int indexOf(User user) {
+        int h = user.getId().hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    private static void requirePositive(long paise) {
+        if (paise <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+    }
+}
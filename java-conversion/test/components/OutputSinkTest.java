@@ -0,0 +1,68 @@
+package components;
+
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutputSinkTest {
+
+    private static String written(int capacity, Consumer<OutputSink> writes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputSink sink = new OutputSink(new PrintStream(bytes, true, StandardCharsets.UTF_8), StandardCharsets.UTF_8, capacity);
+        writes.accept(sink);
+        sink.flush();
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void amountsUseIndianDigitGrouping() {
+        assertEquals("0.00", OutputSink.formatAmount(0));
+        assertEquals("0.05", OutputSink.formatAmount(5));
+        assertEquals("999.99", OutputSink.formatAmount(99999));
+        assertEquals("1,000.00", OutputSink.formatAmount(100000));
+        assertEquals("12,345.60", OutputSink.formatAmount(1234560));
+        assertEquals("1,23,456.78", OutputSink.formatAmount(12345678));
+        assertEquals("12,34,567.89", OutputSink.formatAmount(123456789));
+        assertEquals("1,00,00,000.00", OutputSink.formatAmount(1000000000));
+    }
+
+    @Test
+    void negativeAmountsKeepTheirSign() {
+        assertEquals("-0.50", OutputSink.formatAmount(-50));
+        assertEquals("-1,23,456.78", OutputSink.formatAmount(-12345678));
+        assertEquals("-₹0.50", written(64, sink -> sink.appendRupees(-50)));
+    }
+
+    @Test
+    void sinkAndStringFormattingAgree() {
+        long[] samples = {0, 7, 100, 99999, 100000, 12345678, 987654321012L, -4500};
+        for (long paise : samples) {
+            assertEquals(OutputSink.formatAmount(paise), written(64, sink -> sink.appendAmount(paise)));
+        }
+    }
+
+    @Test
+    void plainNumbersAndDatesAreNotGrouped() {
+        assertEquals("1234567 -42 Mar 07", written(64, sink -> sink
+            .append(1234567L).append(' ').append(-42).append(' ').appendDate(LocalDate.of(2024, 3, 7))));
+    }
+
+    @Test
+    void smallBufferDrainsWithoutLosingText() {
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            expected.append("Row ").append(i).append(": ₹").append(OutputSink.formatAmount(i * 12345L)).append('\n');
+        }
+        String output = written(16, sink -> {
+            for (int i = 0; i < 200; i++) {
+                sink.append("Row ").append(i).append(": ").appendRupees(i * 12345L).newLine();
+            }
+        });
+        assertEquals(expected.toString(), output);
+    }
+}
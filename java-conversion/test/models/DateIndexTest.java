@@ -0,0 +1,90 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateIndexTest {
+
+    @Test
+    void rangeSumsCountsAndScansMatchAFullScan() {
+        Random random = new Random(17);
+        DateIndex index = new DateIndex();
+        List<LocalDate> dates = new ArrayList<>();
+        List<Long> amounts = new ArrayList<>();
+        LocalDate start = LocalDate.of(2022, 1, 1);
+        for (int position = 0; position < 3000; position++) {
+            // Out of date order, so buckets are also opened in front of existing ones
+            LocalDate date = start.plusDays(random.nextInt(1200));
+            long amount = random.nextInt(200001) - 100000;
+            index.add(date, position, amount);
+            dates.add(date);
+            amounts.add(amount);
+        }
+        assertEquals(3000, index.size());
+
+        for (int query = 0; query < 500; query++) {
+            LocalDate from = start.plusDays(random.nextInt(1300) - 50);
+            LocalDate to = from.plusDays(random.nextInt(400));
+            long sum = 0;
+            int count = 0;
+            for (int i = 0; i < dates.size(); i++) {
+                if (!dates.get(i).isBefore(from) && !dates.get(i).isAfter(to)) {
+                    sum += amounts.get(i);
+                    count++;
+                }
+            }
+            assertEquals(sum, index.sum(from, to), from + ".." + to);
+            assertEquals(count, index.count(from, to), from + ".." + to);
+
+            List<Integer> visited = new ArrayList<>();
+            index.forEach(from, to, visited::add);
+            assertEquals(count, visited.size());
+            for (int i = 1; i < visited.size(); i++) {
+                LocalDate previous = dates.get(visited.get(i - 1));
+                LocalDate current = dates.get(visited.get(i));
+                assertFalse(current.isBefore(previous), "date order");
+                if (current.equals(previous)) {
+                    assertTrue(visited.get(i) > visited.get(i - 1), "ledger order within a day");
+                }
+            }
+        }
+    }
+
+    @Test
+    void farOffDatesOnlyCostTheirOwnBucket() {
+        DateIndex index = new DateIndex();
+        index.add(LocalDate.of(2024, 3, 5), 0, 100);
+        index.add(LocalDate.of(9999, 12, 31), 1, 200);
+        index.add(LocalDate.MIN, 2, 300);
+        index.add(LocalDate.MAX, 3, 400);
+
+        assertEquals(1000, index.sum(LocalDate.MIN, LocalDate.MAX));
+        assertEquals(4, index.count(LocalDate.MIN, LocalDate.MAX));
+        assertEquals(100, index.sum(LocalDate.of(2024, 3, 5), LocalDate.of(2024, 3, 5)));
+        assertEquals(200, index.sum(LocalDate.of(2024, 3, 6), LocalDate.of(9999, 12, 31)));
+        assertEquals(0, index.sum(LocalDate.of(2024, 3, 6), LocalDate.of(9999, 12, 30)));
+        assertEquals(0, index.sum(LocalDate.of(2025, 1, 1), LocalDate.of(2024, 1, 1)));
+    }
+
+    @Test
+    void periodTotalsAreSparseToo() {
+        PeriodAggregates aggregates = new PeriodAggregates();
+        aggregates.add(PeriodAggregates.Measure.EXPENSES, LocalDate.of(2024, 3, 5), 100);
+        aggregates.add(PeriodAggregates.Measure.EXPENSES, LocalDate.of(2024, 3, 20), 50);
+        aggregates.add(PeriodAggregates.Measure.EXPENSES, LocalDate.MAX, 200);
+        aggregates.add(PeriodAggregates.Measure.INVESTMENTS, LocalDate.of(2023, 1, 1), 70);
+
+        assertEquals(150, aggregates.get(PeriodAggregates.Measure.EXPENSES, YearMonth.of(2024, 3)));
+        assertEquals(150, aggregates.get(PeriodAggregates.Measure.EXPENSES, 2024));
+        assertEquals(0, aggregates.get(PeriodAggregates.Measure.INVESTMENTS, 2024));
+        assertEquals(70, aggregates.get(PeriodAggregates.Measure.INVESTMENTS, 2023));
+        assertEquals(200, aggregates.get(PeriodAggregates.Measure.EXPENSES, LocalDate.MAX.getYear()));
+        assertEquals(0, aggregates.get(PeriodAggregates.Measure.EXPENSES, YearMonth.of(2024, 4)));
+    }
+}
@@ -0,0 +1,97 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DueDateQueueTest {
+
+    private static DueDateQueue<Bill> bills() {
+        return new DueDateQueue<>(Bill::getNextDueDate);
+    }
+
+    @Test
+    void listsBillsDueInTheWindowSoonestFirst() {
+        DueDateQueue<Bill> queue = bills();
+        LocalDate today = LocalDate.of(2024, 3, 10);
+        Bill rent = new Bill("Rent", 100, 12);
+        Bill phone = new Bill("Phone", 100, 10);
+        Bill power = new Bill("Power", 100, 25);
+        Bill water = new Bill("Water", 100, 9);
+        for (Bill bill : List.of(rent, phone, power, water)) {
+            queue.add(bill, today);
+        }
+
+        assertEquals(4, queue.size());
+        assertEquals(today, queue.peekDue());
+        assertEquals(List.of(phone, rent), queue.dueBy(today.plusDays(7)));
+        assertEquals(List.of(phone, rent, power), queue.dueBy(today.plusDays(15)));
+        // Water's day has passed this month, so it is next due on April 9
+        assertEquals(List.of(phone, rent, power, water), queue.dueBy(LocalDate.of(2024, 4, 9)));
+    }
+
+    @Test
+    void billsDueTheSameDayKeepTheOrderTheyWereAdded() {
+        DueDateQueue<Bill> queue = bills();
+        LocalDate today = LocalDate.of(2024, 3, 1);
+        List<Bill> added = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Bill bill = new Bill("Bill " + i, 100, 15);
+            added.add(bill);
+            queue.add(bill, today);
+        }
+        assertEquals(added, queue.dueBy(LocalDate.of(2024, 3, 15)));
+    }
+
+    @Test
+    void advancingRollsPastDueBillsToTheirNextMonth() {
+        DueDateQueue<Bill> queue = bills();
+        Bill endOfMonth = new Bill("Card", 100, 31);
+        Bill early = new Bill("Gym", 100, 2);
+        queue.add(endOfMonth, LocalDate.of(2024, 1, 1));
+        queue.add(early, LocalDate.of(2024, 1, 1));
+        assertEquals(LocalDate.of(2024, 1, 2), queue.peekDue());
+
+        queue.advanceTo(LocalDate.of(2024, 2, 5));
+        // Day 31 falls on the last day of February
+        assertEquals(LocalDate.of(2024, 2, 29), queue.peekDue());
+        assertEquals(List.of(endOfMonth), queue.dueBy(LocalDate.of(2024, 2, 29)));
+        assertEquals(List.of(endOfMonth, early), queue.dueBy(LocalDate.of(2024, 3, 2)));
+    }
+
+    @Test
+    void dueWindowsMatchAFullScan() {
+        Random random = new Random(21);
+        DueDateQueue<Bill> queue = bills();
+        List<Bill> all = new ArrayList<>();
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 500; i++) {
+            Bill bill = new Bill("Bill " + i, 100, 1 + random.nextInt(31));
+            all.add(bill);
+            queue.add(bill, start);
+        }
+
+        LocalDate today = start;
+        for (int step = 0; step < 60; step++) {
+            today = today.plusDays(random.nextInt(20));
+            LocalDate last = today.plusDays(random.nextInt(40));
+            queue.advanceTo(today);
+
+            LocalDate from = today;
+            List<Bill> expected = new ArrayList<>();
+            for (Bill bill : all) {
+                if (!bill.getNextDueDate(from).isAfter(last)) {
+                    expected.add(bill);
+                }
+            }
+            // Soonest first, then in the order added
+            expected.sort(Comparator.comparing((Bill bill) -> bill.getNextDueDate(from)).thenComparing(all::indexOf));
+            assertEquals(expected, queue.dueBy(last), today + ".." + last);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdGeneratorTest {
+
+    @Test
+    void idsStayUniqueWhenManyMoreThreadsThanSlotsComeAndGo() throws Exception {
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int created = 0;
+        // 3000 short-lived threads, 8 at a time: far more than the 1024 slots
+        for (int round = 0; round < 375; round++) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                threads.add(new Thread(() -> {
+                    long previous = Long.MIN_VALUE;
+                    for (int i = 0; i < 200; i++) {
+                        long id = IdGenerator.next();
+                        assertTrue(id > previous, "ids from one thread increase");
+                        previous = id;
+                        ids.add(id);
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            created += 8 * 200;
+            if (round % 50 == 0) {
+                System.gc(); // lets finished threads hand their slots back
+            }
+        }
+        assertEquals(created, ids.size());
+    }
+
+    @Test
+    void idsCarryTheirCreationTime() {
+        long before = System.currentTimeMillis();
+        long id = IdGenerator.next();
+        long after = System.currentTimeMillis();
+        assertTrue(id > 0);
+        long millis = IdGenerator.timestampMillis(id);
+        assertTrue(millis >= before && millis <= after + 1, millis + " not in " + before + ".." + after);
+    }
+
+    @Test
+    void legacyIdsAreDerivedTheSameWayEveryTime() {
+        assertEquals(1700000000000L, IdGenerator.fromLegacy("1700000000000"));
+        assertEquals(IdGenerator.fromLegacy("inc-abc"), IdGenerator.fromLegacy("inc-abc"));
+        assertNotEquals(IdGenerator.fromLegacy("inc-abc"), IdGenerator.fromLegacy("inc-abd"));
+        assertTrue(IdGenerator.fromLegacy("inc-abc") < 0);
+
+        assertEquals(IdGenerator.fromPosition(5), IdGenerator.fromPosition(5));
+        assertTrue(IdGenerator.fromPosition(0) < 0);
+        assertNotEquals(IdGenerator.fromPosition(1), IdGenerator.fromPosition(2));
+        assertThrows(IllegalArgumentException.class, () -> IdGenerator.fromPosition(-1));
+        assertThrows(IllegalArgumentException.class, () -> IdGenerator.fromPosition(1L << 62));
+
+        Set<Long> derived = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            derived.add(IdGenerator.fromLegacy("legacy-" + i));
+            derived.add(IdGenerator.fromPosition(i));
+        }
+        assertEquals(20000, derived.size());
+    }
+}
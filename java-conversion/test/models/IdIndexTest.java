@@ -0,0 +1,65 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdIndexTest {
+
+    @Test
+    void findsEveryIdAcrossRehashes() {
+        Random random = new Random(23);
+        IdIndex index = new IdIndex();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int position = 0; position < 20000; position++) {
+            long id = random.nextLong();
+            index.put(id, position);
+            expected.put(id, position);
+        }
+        assertEquals(expected.size(), index.size());
+        expected.forEach((id, position) -> assertEquals(position, index.get(id)));
+        for (int i = 0; i < 1000; i++) {
+            long id = random.nextLong();
+            if (!expected.containsKey(id)) {
+                assertEquals(-1, index.get(id));
+            }
+        }
+    }
+
+    @Test
+    void probesPastCollidingIds() {
+        // Ids from one slot in one millisecond differ only in their lowest bits,
+        // and derived ids share their high bits; all must stay distinct
+        IdIndex index = new IdIndex();
+        long base = 123456789L << 22;
+        for (int i = 0; i < 4096; i++) {
+            index.put(base + i, i);
+            index.put(IdGenerator.fromPosition(i), 10000 + i);
+        }
+        index.put(0, 20000);
+        index.put(-1, 20001);
+        index.put(Long.MAX_VALUE, 20002);
+
+        assertEquals(8195, index.size());
+        for (int i = 0; i < 4096; i++) {
+            assertEquals(i, index.get(base + i));
+            assertEquals(10000 + i, index.get(IdGenerator.fromPosition(i)));
+        }
+        assertEquals(20000, index.get(0));
+        assertEquals(20001, index.get(-1));
+        assertEquals(20002, index.get(Long.MAX_VALUE));
+        assertEquals(-1, index.get(base + 4096));
+    }
+
+    @Test
+    void addingAnIdAgainMovesIt() {
+        IdIndex index = new IdIndex();
+        index.put(42, 0);
+        index.put(42, 7);
+        assertEquals(1, index.size());
+        assertEquals(7, index.get(42));
+    }
+}
@@ -0,0 +1,60 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTransactionStoreTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void rowsReadBackExactlyAcrossGrowthAndDictionaryRehash() throws IOException {
+        Path storeDir = dir.resolve("store");
+        MappedTransactionStore store = new MappedTransactionStore(storeDir);
+        int rows = 20_000;
+        long income = 0;
+        for (int i = 0; i < rows; i++) {
+            // Mostly distinct free text, some repeats and the odd null
+            String description = i % 7 == 0 ? null : "Payment #" + (i % 3 == 0 ? 1 : i) + " – ₹ note";
+            long paise = (i % 2 == 0 ? 1 : -1) * (i * 101L + 7);
+            store.add(new Transaction(i, description, Money.toRupees(paise), "Type" + (i % 5),
+                i % 2 == 0 ? "receive" : "send", LocalDate.ofEpochDay(19000 + i % 400)));
+            if (paise > 0) {
+                income += paise;
+            }
+        }
+
+        assertEquals(rows, store.size());
+        assertEquals(income, store.getTotalIncomePaise());
+        for (int i = 0; i < rows; i++) {
+            Transaction t = store.get(i);
+            assertEquals(i, t.getId());
+            assertEquals(i % 7 == 0 ? null : "Payment #" + (i % 3 == 0 ? 1 : i) + " – ₹ note", t.getDescription());
+            assertEquals((i % 2 == 0 ? 1 : -1) * (i * 101L + 7), t.getAmountPaise());
+            assertEquals("Type" + (i % 5), t.getType());
+            assertEquals(LocalDate.ofEpochDay(19000 + i % 400), t.getDate());
+        }
+
+        store.close();
+        assertFalse(Files.exists(storeDir));
+    }
+
+    @Test
+    void reopeningADirectoryStartsEmpty() throws IOException {
+        Path storeDir = dir.resolve("again");
+        MappedTransactionStore first = new MappedTransactionStore(storeDir);
+        first.add(new Transaction(1, "Left over", 10, "Deposit", "receive", LocalDate.ofEpochDay(19000)));
+
+        // The first store was never closed; its files are replaced, not truncated under it
+        MappedTransactionStore second = new MappedTransactionStore(storeDir);
+        assertEquals(0, second.size());
+        assertEquals("Left over", first.get(0).getDescription());
+        second.close();
+    }
+}
@@ -0,0 +1,54 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeriodKeyTest {
+
+    @Test
+    void parsesTheFormatsUsersType() {
+        assertEquals(PeriodKey.ofYear(2024), PeriodKey.parse("2024"));
+        assertEquals(PeriodKey.ofYear(2024), PeriodKey.parse("  2024 "));
+        assertEquals(PeriodKey.ofMonth(2024, 1), PeriodKey.parse("January 2024"));
+        assertEquals(PeriodKey.ofMonth(2024, 1), PeriodKey.parse("jan 2024"));
+        assertEquals(PeriodKey.ofMonth(2024, 9), PeriodKey.parse("SEPTEMBER 2024"));
+        assertEquals(PeriodKey.ofMonth(2024, 1), PeriodKey.parse("2024-01"));
+        assertEquals(PeriodKey.ofMonth(2024, 12), PeriodKey.parse("2024-12"));
+        assertEquals(PeriodKey.ofMonth(2024, 3), PeriodKey.parse("2024-3"));
+    }
+
+    @Test
+    void rejectsTextThatIsNotAPeriod() {
+        String[] invalid = {null, "", "Q1 2024", "24", "20245", "2024-13", "2024-00", "2024-", "-01",
+            "Ja 2024", "Smarch 2024", "January", "January 24", "2024-001", "twenty 2024"};
+        for (String text : invalid) {
+            assertEquals(PeriodKey.NONE, PeriodKey.parse(text), String.valueOf(text));
+        }
+    }
+
+    @Test
+    void keysSortInCalendarOrderAndRollUpToTheirYear() {
+        int year = PeriodKey.ofYear(2024);
+        int january = PeriodKey.ofMonth(2024, 1);
+        int december = PeriodKey.ofMonth(2024, 12);
+        assertTrue(year < january && january < december && december < PeriodKey.ofYear(2025));
+
+        assertTrue(PeriodKey.isYear(year));
+        assertFalse(PeriodKey.isYear(december));
+        assertEquals(year, PeriodKey.yearOf(december));
+        assertEquals(2024, PeriodKey.year(december));
+        assertEquals(12, PeriodKey.month(december));
+        assertEquals(PeriodKey.ofMonth(2024, 2), PeriodKey.ofMonth(LocalDate.of(2024, 2, 29)));
+        assertThrows(IllegalArgumentException.class, () -> PeriodKey.ofMonth(2024, 13));
+    }
+
+    @Test
+    void formatParsesBack() {
+        for (int key : new int[] {PeriodKey.ofYear(2024), PeriodKey.ofMonth(2024, 1), PeriodKey.ofMonth(1999, 11)}) {
+            assertEquals(key, PeriodKey.parse(PeriodKey.format(key)), PeriodKey.format(key));
+        }
+        assertEquals("March 2024", PeriodKey.format(PeriodKey.ofMonth(2024, 3)));
+    }
+}
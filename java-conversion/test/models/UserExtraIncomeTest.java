@@ -0,0 +1,53 @@
+package models;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserExtraIncomeTest {
+
+    @BeforeAll
+    static void fastHashing() {
+        PasswordHasher.setIterations(1);
+    }
+
+    @Test
+    void actualAndPlannedRemainingCountExtraIncomeByItsPeriod() {
+        User user = new User("extra@finwise.com", "Extra", "secret");
+        // Entered for 2024 and for March 2024, but both recorded in January 2025
+        user.addExtraIncome(new ExtraIncome("Bonus", 5000, "2024", LocalDate.of(2025, 1, 10)));
+        user.addExtraIncome(new ExtraIncome("Gift", 1000, "March 2024", LocalDate.of(2025, 1, 12)));
+
+        long planned = user.getAnnualRemainingPaise("2024") - user.getAnnualRemainingPaise("2023");
+        long actual = user.getActualRemainingPaise(2024) - user.getActualRemainingPaise(2023);
+        assertEquals(Money.ofRupees(6000), planned);
+        assertEquals(planned, actual);
+        assertEquals(0, user.getActualRemainingPaise(2025) - user.getActualRemainingPaise(2023));
+
+        long march = user.getActualRemainingPaise(YearMonth.of(2024, 3)) - user.getActualRemainingPaise(YearMonth.of(2024, 4));
+        assertEquals(Money.ofRupees(1000), march);
+        assertEquals(user.getActualRemainingPaise(YearMonth.of(2024, 4)), user.getActualRemainingPaise(YearMonth.of(2025, 1)));
+    }
+
+    @Test
+    void incomesWhosePeriodIsNotAPeriodKeyStayUnderTheirText() {
+        User user = new User("quarter@finwise.com", "Quarter", "secret");
+        ExtraIncome quarterly = new ExtraIncome("Dividend", 750, "Q1 2024", LocalDate.of(2024, 3, 31));
+        user.addExtraIncome(quarterly);
+        user.addExtraIncome(new ExtraIncome("Bonus", 100, "2024", LocalDate.of(2024, 3, 31)));
+
+        assertEquals(PeriodKey.NONE, quarterly.getPeriodKey());
+        assertEquals(List.of(quarterly), user.getExtraIncomes("Q1 2024"));
+        assertEquals(Money.ofRupees(750), user.getTotalExtraIncomePaise("Q1 2024"));
+        assertTrue(user.getExtraIncomes("Q2 2024").isEmpty());
+
+        // Not misfiled under the month (or year) it was entered in
+        assertTrue(user.getExtraIncomes("March 2024").isEmpty());
+        assertEquals(Money.ofRupees(100), user.getTotalExtraIncomePaise("2024"));
+        assertEquals(1, user.getExtraIncomes("2024").size());
+    }
+}
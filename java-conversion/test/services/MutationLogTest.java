@@ -0,0 +1,123 @@
+package services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutationLogTest {
+    @TempDir
+    Path dir;
+
+    private static void append(MutationLog log, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        log.append(bytes, bytes.length);
+    }
+
+    private static List<String> read(Path path) throws IOException {
+        List<String> records = new ArrayList<>();
+        MutationLog.read(path, record -> records.add(text(record)));
+        return records;
+    }
+
+    private static String text(ByteBuffer record) {
+        byte[] bytes = new byte[record.remaining()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private MutationLog open(Path path, List<String> replayed) throws IOException {
+        MutationLog log = new MutationLog(path, 0);
+        log.replay(record -> replayed.add(text(record)));
+        return log;
+    }
+
+    @Test
+    void tornTailIsTruncatedAndAppendingContinues() throws IOException {
+        Path path = dir.resolve("torn.log");
+        MutationLog log = open(path, new ArrayList<>());
+        append(log, "one");
+        append(log, "two");
+        log.close();
+        long intact = Files.size(path);
+
+        // A crash mid-write: a frame header promising more bytes than follow
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.APPEND)) {
+            out.write(ByteBuffer.allocate(11).putInt(100).putInt(0).put(new byte[] {1, 2, 3}).flip());
+        }
+
+        List<String> replayed = new ArrayList<>();
+        log = open(path, replayed);
+        assertEquals(List.of("one", "two"), replayed);
+        assertEquals(intact, Files.size(path));
+        append(log, "three");
+        log.close();
+        assertEquals(List.of("one", "two", "three"), read(path));
+    }
+
+    @Test
+    void replayStopsAtACorruptRecord() throws IOException {
+        Path path = dir.resolve("corrupt.log");
+        MutationLog log = open(path, new ArrayList<>());
+        append(log, "one");
+        append(log, "two");
+        append(log, "three");
+        log.close();
+
+        // Flip a payload byte of "two": its checksum no longer matches
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            out.write(ByteBuffer.wrap(new byte[] {'X'}), 8 + 3 + 8);
+        }
+
+        List<String> replayed = new ArrayList<>();
+        open(path, replayed).close();
+        assertEquals(List.of("one"), replayed);
+        assertEquals(List.of("one"), read(path));
+    }
+
+    @Test
+    void rotationSplitsRecordsAndStartsEachFileWithTheHeader() throws IOException {
+        Path first = dir.resolve("first.log");
+        Path second = dir.resolve("second.log");
+        byte[] header = "header".getBytes(StandardCharsets.UTF_8);
+        MutationLog log = new MutationLog(first, 0, header);
+        log.replay(record -> { });
+        append(log, "a");
+        append(log, "b");
+        log.rotate(second);
+        append(log, "c");
+        log.close();
+
+        assertEquals(List.of("header", "a", "b"), read(first));
+        assertEquals(List.of("header", "c"), read(second));
+    }
+
+    @Test
+    void enqueuedRecordsBecomeDurableTogether() throws IOException {
+        Path path = dir.resolve("batch.log");
+        MutationLog log = open(path, new ArrayList<>());
+        byte[] record = "x".getBytes(StandardCharsets.UTF_8);
+        long first = log.enqueue(record, 1);
+        long last = log.enqueue(record, 1);
+        assertTrue(last > first);
+        log.awaitDurable(last);
+        assertEquals(List.of("x", "x"), read(path));
+        log.close();
+    }
+
+    @Test
+    void appendAfterCloseFails() throws IOException {
+        MutationLog log = open(dir.resolve("closed.log"), new ArrayList<>());
+        log.close();
+        assertThrows(IOException.class, () -> append(log, "late"));
+    }
+}
@@ -0,0 +1,96 @@
+package services;
+
+import models.Expense;
+import models.PasswordHasher;
+import models.User;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistenceServiceTest {
+    private static final int USERS = 400;
+
+    @TempDir
+    Path dataDir;
+
+    @BeforeAll
+    static void fastHashing() {
+        PasswordHasher.setIterations(1);
+    }
+
+    @Test
+    void concurrentSignUpsKeepTheirOwnDataAfterReload() throws Exception {
+        PersistenceService persistence = new PersistenceService(dataDir);
+        assertTrue(persistence.load().isEmpty());
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> signUps = new ArrayList<>();
+            for (int i = 0; i < USERS; i++) {
+                int n = i;
+                signUps.add(pool.submit(() -> {
+                    User user = new User("user" + n + "@finwise.com", "User " + n, "secret");
+                    persistence.register(user);
+                    user.addExpense(new Expense("Expense " + n, n + 1, "Food"));
+                    user.setMonthlySalary(1000 + n);
+                }));
+            }
+            for (Future<?> signUp : signUps) {
+                signUp.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        persistence.close();
+
+        PersistenceService reopened = new PersistenceService(dataDir);
+        List<User> users = reopened.load();
+        reopened.close();
+        assertEquals(USERS, users.size());
+
+        Map<String, User> byEmail = new HashMap<>();
+        for (User user : users) {
+            byEmail.put(user.getEmail(), user);
+        }
+        for (int n = 0; n < USERS; n++) {
+            User user = byEmail.get("user" + n + "@finwise.com");
+            assertNotNull(user, "user" + n);
+            List<Expense> expenses = user.getAllExpenses();
+            assertEquals(1, expenses.size(), user.getEmail());
+            assertEquals("Expense " + n, expenses.get(0).getDescription());
+            assertEquals(n + 1, expenses.get(0).getAmount(), 0.0);
+            assertEquals(1000 + n, user.getMonthlySalary(), 0.0);
+        }
+    }
+
+    @Test
+    void unreadableSnapshotWhoseLogIsGoneFailsTheLoad() throws Exception {
+        PersistenceService persistence = new PersistenceService(dataDir);
+        persistence.load();
+        User user = new User("snap@finwise.com", "Snap", "secret");
+        persistence.register(user);
+        user.setMonthlySalary(1234);
+        persistence.snapshotNow().get();
+        persistence.close();
+
+        Path snapshot;
+        try (var files = Files.list(dataDir)) {
+            snapshot = files.filter(f -> f.getFileName().toString().startsWith("snapshot-")).findFirst().orElseThrow();
+        }
+        Files.write(snapshot, new byte[] {1, 2, 3});
+
+        assertThrows(IOException.class, () -> new PersistenceService(dataDir).load());
+    }
+}
@@ -0,0 +1,121 @@
+package services;
+
+import models.PasswordHasher;
+import models.Transaction;
+import models.User;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementServiceTest {
+    private static final int USERS = 16;
+    private static final int SENDERS = 8;
+    private static final int PAYMENTS = 500;
+
+    @TempDir
+    Path dataDir;
+
+    @BeforeAll
+    static void fastHashing() {
+        PasswordHasher.setIterations(1);
+    }
+
+    @Test
+    void concurrentPaymentsSettleAndSurviveAReload() throws Exception {
+        PersistenceService persistence = new PersistenceService(dataDir);
+        assertTrue(persistence.load().isEmpty());
+        WalletService wallets = new WalletService(WalletService.DEFAULT_STRIPES);
+        SettlementService settlement = new SettlementService(null, persistence, wallets, 64);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("user" + i + "@finwise.com", "User " + i, "secret");
+            persistence.register(user);
+            users.add(user);
+        }
+        long total = 0;
+        for (User user : users) {
+            total += user.getWalletBalancePaise();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(SENDERS);
+        try {
+            List<Future<List<CompletableFuture<Transaction>>>> senders = new ArrayList<>();
+            for (int s = 0; s < SENDERS; s++) {
+                senders.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    List<CompletableFuture<Transaction>> results = new ArrayList<>();
+                    for (int i = 0; i < PAYMENTS; i++) {
+                        User from = users.get(random.nextInt(USERS));
+                        User to = users.get(random.nextInt(USERS));
+                        if (from != to) {
+                            results.add(settlement.submit(from, to, 1 + random.nextInt(1000), "Sent", "Received", "transfer"));
+                        }
+                    }
+                    return results;
+                }));
+            }
+            for (Future<List<CompletableFuture<Transaction>>> sender : senders) {
+                for (CompletableFuture<Transaction> result : sender.get()) {
+                    result.get();
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(0, settlement.getPendingCount());
+
+        long after = 0;
+        Map<String, Long> balances = new HashMap<>();
+        for (User user : users) {
+            after += user.getWalletBalancePaise();
+            balances.put(user.getEmail(), user.getWalletBalancePaise());
+        }
+        assertEquals(total, after);
+        persistence.close();
+
+        PersistenceService reopened = new PersistenceService(dataDir);
+        List<User> restored = reopened.load();
+        reopened.close();
+        assertEquals(USERS, restored.size());
+        for (User user : restored) {
+            assertEquals(balances.get(user.getEmail()), user.getWalletBalancePaise(), user.getEmail());
+        }
+    }
+
+    @Test
+    void paymentToAnUnsavedUserChangesNothing() throws Exception {
+        PersistenceService persistence = new PersistenceService(dataDir);
+        persistence.load();
+        WalletService wallets = new WalletService(WalletService.DEFAULT_STRIPES);
+        SettlementService settlement = new SettlementService(null, persistence, wallets, 64);
+        User payer = new User("payer@finwise.com", "Payer", "secret");
+        persistence.register(payer);
+        User unsaved = new User("unsaved@finwise.com", "Unsaved", "secret");
+        long payerBalance = payer.getWalletBalancePaise();
+        long unsavedBalance = unsaved.getWalletBalancePaise();
+        int payerCount = payer.getTransactionCount();
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+            () -> settlement.submit(payer, unsaved, 100, "Sent", "Received", "transfer").get());
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(payerBalance, payer.getWalletBalancePaise());
+        assertEquals(unsavedBalance, unsaved.getWalletBalancePaise());
+        assertEquals(payerCount, payer.getTransactionCount());
+        assertEquals(0, unsaved.getTransactionCount());
+        persistence.close();
+    }
+}
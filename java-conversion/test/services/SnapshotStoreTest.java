@@ -0,0 +1,188 @@
+package services;
+
+import models.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotStoreTest {
+    private static final int MAGIC = 0x46575350;
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 17);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void versionTwoSnapshotGetsTheSameIdsOnEveryLoadAndKeepsThemInVersionThree() throws Exception {
+        Path v2 = dir.resolve("snapshot-000001.bin");
+        Files.write(v2, versionTwoSnapshot());
+
+        List<User> first = SnapshotStore.read(v2);
+        List<User> second = SnapshotStore.read(v2);
+        assertEquals(ids(first), ids(second));
+
+        Set<Long> unique = new HashSet<>(ids(first));
+        assertEquals(ids(first).size(), unique.size(), "derived ids are distinct");
+        User user = first.get(0);
+        for (Expense e : user.getAllExpenses()) {
+            assertTrue(e.getId() < 0, "derived ids never meet generated ones");
+        }
+        assertEquals(1700000000000L, user.getAllExtraIncomes().get(0).getId());
+        assertEquals(user.getAllExpenses().get(1), user.getExpense(user.getAllExpenses().get(1).getId()));
+
+        Path v3 = dir.resolve("snapshot-000002.bin");
+        SnapshotStore.write(v3, first);
+        List<User> reloaded = SnapshotStore.read(v3);
+        assertEquals(ids(first), ids(reloaded));
+
+        User restored = reloaded.get(0);
+        assertEquals("legacy@finwise.com", restored.getEmail());
+        assertEquals(123456, restored.getWalletBalancePaise());
+        assertEquals(List.of("Lunch", "Taxi"), restored.getAllExpenses().stream().map(Expense::getDescription).toList());
+        assertEquals(25050, restored.getAllExpenses().get(0).getAmountPaise());
+        assertEquals(DAY, restored.getAllExpenses().get(1).getDate());
+        assertEquals(-9999, restored.getAllTransactions().get(0).getAmountPaise());
+        assertEquals(500000, restored.getAllBudgets().get(0).getLimitPaise());
+        assertEquals(110000, restored.getAllInvestments().get(0).getCurrentPaise());
+        assertEquals(31, restored.getAllBills().get(0).getDueDay());
+        assertEquals("HDFC", restored.getAllAccounts().get(0).getBankName());
+        assertEquals(Money.ofRupees(2000), restored.getTotalExtraIncomePaise("2024"));
+    }
+
+    private static List<Long> ids(List<User> users) {
+        List<Long> ids = new ArrayList<>();
+        for (User user : users) {
+            user.getAllExpenses().forEach(e -> ids.add(e.getId()));
+            user.getAllTransactions().forEach(t -> ids.add(t.getId()));
+            user.getAllBudgets().forEach(b -> ids.add(b.getId()));
+            user.getAllInvestments().forEach(i -> ids.add(i.getId()));
+            user.getAllBills().forEach(b -> ids.add(b.getId()));
+            user.getAllAccounts().forEach(a -> ids.add(a.getId()));
+            user.getAllExtraIncomes().forEach(i -> ids.add(i.getId()));
+        }
+        return ids;
+    }
+
+    // A version 2 snapshot: no id columns, and extra incomes with text ids
+    private static byte[] versionTwoSnapshot() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(2);
+        out.writeInt(1);
+
+        string(out, "user-1");
+        string(out, "legacy@finwise.com");
+        string(out, "Legacy User");
+        string(out, "hash");
+        string(out, null);
+        out.writeLong(1700000000L);
+        out.writeInt(0);
+        for (User.Field field : User.Field.values()) {
+            out.writeLong(field == User.Field.WALLET_BALANCE ? 123456 : 0);
+        }
+
+        // Expenses
+        out.writeInt(2);
+        string(out, "Lunch");
+        string(out, "Taxi");
+        out.writeLong(25050);
+        out.writeLong(30000);
+        dictionary(out, "Food", "Transport");
+        out.writeInt((int) DAY.toEpochDay());
+        out.writeInt((int) DAY.toEpochDay());
+
+        // Transactions
+        out.writeInt(1);
+        string(out, "Coffee");
+        out.writeLong(-9999);
+        dictionary(out, "Food");
+        dictionary(out, "send");
+        out.writeInt((int) DAY.toEpochDay());
+
+        // Budgets
+        out.writeInt(1);
+        string(out, "Food");
+        out.writeLong(500000);
+
+        // Investments
+        out.writeInt(1);
+        string(out, "Index Fund");
+        out.writeLong(100000);
+        out.writeLong(110000);
+        dictionary(out, "Mutual Fund");
+        out.writeInt((int) DAY.toEpochDay());
+
+        // Bills
+        out.writeInt(1);
+        string(out, "Card");
+        out.writeLong(150000);
+        out.writeInt(31);
+
+        // Accounts
+        out.writeInt(1);
+        string(out, "Savings");
+        string(out, "XXXX1234");
+        dictionary(out, "HDFC");
+        out.writeLong(9900000);
+        dictionary(out, "Savings");
+
+        // Extra incomes
+        out.writeInt(2);
+        string(out, "1700000000000");
+        string(out, "not-a-number");
+        string(out, "Bonus");
+        string(out, "Gift");
+        out.writeLong(150000);
+        out.writeLong(50000);
+        dictionary(out, "2024", "2024");
+        out.writeInt((int) DAY.toEpochDay());
+        out.writeInt((int) DAY.toEpochDay());
+
+        out.flush();
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        return bytes.toByteArray();
+    }
+
+    private static void string(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // One row per value, each value its own dictionary entry unless repeated
+    private static void dictionary(DataOutputStream out, String... rows) throws IOException {
+        List<String> values = new ArrayList<>();
+        for (String row : rows) {
+            if (!values.contains(row)) {
+                values.add(row);
+            }
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            string(out, value);
+        }
+        for (String row : rows) {
+            out.writeByte(values.indexOf(row));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package services;
+
+import models.IdGenerator;
+import models.PasswordHasher;
+import models.Today;
+import models.Transaction;
+import models.User;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalletServiceTest {
+    private static final int PAYERS = 8;
+    private static final int TRANSFERS = 2000;
+
+    @BeforeAll
+    static void fastHashing() {
+        PasswordHasher.setIterations(1);
+    }
+
+    @Test
+    void creditsAndThePayeesOwnTransactionsAreAllFiled() throws Exception {
+        WalletService wallets = new WalletService(WalletService.DEFAULT_STRIPES);
+        User payee = new User("payee@finwise.com", "Payee", "secret");
+        long opening = payee.getWalletBalancePaise();
+        List<User> payers = new ArrayList<>();
+        for (int i = 0; i < PAYERS; i++) {
+            User payer = new User("payer" + i + "@finwise.com", "Payer " + i, "secret");
+            // Spend the opening balance too, so every transfer must go through
+            wallets.transfer(payer, payee, payer.getWalletBalancePaise(), "Opening", "Opening", "transfer");
+            wallets.deposit(payer, TRANSFERS, "Top up", "wallet");
+            payers.add(payer);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(PAYERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Transaction>>> results = new ArrayList<>();
+        try {
+            for (User payer : payers) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    List<Transaction> sent = new ArrayList<>();
+                    for (int i = 0; i < TRANSFERS; i++) {
+                        sent.add(wallets.transfer(payer, payee, 1, "Sent", "Received", "transfer"));
+                    }
+                    return sent;
+                }));
+            }
+            // The payee's own session records transactions at the same time
+            results.add(pool.submit(() -> {
+                start.await();
+                List<Transaction> own = new ArrayList<>();
+                for (int i = 0; i < TRANSFERS; i++) {
+                    Transaction t = Transaction.ofPaise(IdGenerator.next(), "Cash", 100, "cash", "receive", Today.date());
+                    payee.addTransaction(t);
+                    own.add(t);
+                }
+                return own;
+            }));
+            start.countDown();
+            for (Future<List<Transaction>> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        int expected = PAYERS + PAYERS * TRANSFERS + TRANSFERS;
+        assertEquals(expected, payee.getTransactionCount());
+        assertEquals(expected, payee.getTransactionsBetween(Today.date(), Today.date()).size());
+        assertEquals(PAYERS * opening + PAYERS * TRANSFERS + TRANSFERS * 100L,
+                payee.getNetTransactionsBetweenPaise(Today.date(), Today.date()));
+        assertEquals(opening + PAYERS * opening + PAYERS * TRANSFERS, payee.getWalletBalancePaise());
+        for (Transaction t : payee.getAllTransactions()) {
+            assertSame(t, payee.getTransaction(t.getId()));
+        }
+        Transaction own = results.get(PAYERS).get().get(TRANSFERS - 1);
+        assertSame(own, payee.getTransaction(own.getId()));
+        for (User payer : payers) {
+            assertEquals(0, payer.getWalletBalancePaise());
+            assertEquals(TRANSFERS + 2, payer.getTransactionCount());
+        }
+    }
+}